@@ -0,0 +1,85 @@
+package com.example.demo.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop HTTP load driver for comparing the pooled and the virtual-thread executor modes.
+ * <p>
+ * Start the application in the mode under test, e.g.
+ * {@code java -jar target/demo.jar --spring.threads.virtual.enabled=true} (JDK 21, built with {@code -Pjdk21}),
+ * then run:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.example.demo.benchmark.AsyncLoadTest \
+ *     -Dbenchmark.args="http://localhost:8080/api/currency 1000,10000 50000"
+ * </pre>
+ * For each concurrency level it keeps that many requests in flight until the request count is reached,
+ * then prints throughput, p50/p99/max latency and the number of failed (5xx or I/O error) requests.
+ * The numbers measured for both modes are listed in the README.
+ */
+public class AsyncLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080/api/currency");
+        int[] concurrencies = Arrays.stream((args.length > 1 ? args[1] : "1000,10000").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 50_000;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+
+        // 暖機
+        run(client, request, Math.min(100, concurrencies[0]), 2_000);
+        System.out.printf("%-12s %12s %10s %10s %10s %8s%n", "concurrency", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (int concurrency : concurrencies) {
+            Result result = run(client, request, concurrency, Math.max(requests, concurrency));
+            System.out.printf("%-12d %12.0f %10.1f %10.1f %10.1f %8d%n", concurrency, result.throughput,
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0), result.errors);
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, int requests) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                latencies[index] = System.nanoTime() - sent;
+                if (error != null || response.statusCode() >= 500) {
+                    errors.incrementAndGet();
+                }
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(requests * 1e9 / elapsed, latencies, errors.get());
+    }
+
+    private record Result(double throughput, long[] sortedLatencies, int errors) {
+        double percentile(double p) {
+            int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(p * sortedLatencies.length) - 1);
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
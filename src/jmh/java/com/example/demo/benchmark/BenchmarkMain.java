@@ -0,0 +1,24 @@
+package com.example.demo.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Default entry point of the {@code benchmark} profile: runs {@link org.openjdk.jmh.Main} and, unless the
+ * arguments already choose a result format, writes machine-readable results to
+ * {@code target/jmh-results.json} so runs can be compared across releases.
+ */
+public class BenchmarkMain {
+    static final String DEFAULT_RESULT_FILE = "target/jmh-results.json";
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        if (!jmhArgs.contains("-rf") && !jmhArgs.contains("-rff")) {
+            new File(DEFAULT_RESULT_FILE).getParentFile().mkdirs();
+            jmhArgs.addAll(List.of("-rf", "json", "-rff", DEFAULT_RESULT_FILE));
+        }
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.coindesk.CoinDeskResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of deserializing a CoinDesk {@code currentprice.json} payload into {@link CoinDeskResponse}
+ * with 10, 100 and 1000 currencies in {@code bpi}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoinDeskResponseBenchmark {
+    @Param({"10", "100", "1000"})
+    public int currencies;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ObjectReader reader;
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        reader = objectMapper.readerFor(CoinDeskResponse.class);
+        StringBuilder json = new StringBuilder(currencies * 160 + 512);
+        json.append("{\"time\":{\"updated\":\"Oct 12, 2024 08:15:30 UTC\",\"updatedISO\":\"2024-10-12T08:15:30+00:00\"},")
+                .append("\"disclaimer\":\"This data was produced from the CoinDesk Bitcoin Price Index (USD).\",")
+                .append("\"chartName\":\"Bitcoin\",\"bpi\":{");
+        for (int i = 0; i < currencies; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String code = code(i);
+            double rate = 50_000 + i * 13.3713;
+            json.append('"').append(code).append("\":{\"code\":\"").append(code)
+                    .append("\",\"symbol\":\"&#36;\",\"rate\":\"").append(String.format("%,.4f", rate))
+                    .append("\",\"description\":\"Currency ").append(code)
+                    .append("\",\"rate_float\":").append(String.format("%.4f", rate)).append('}');
+        }
+        json.append("}}");
+        payload = json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public CoinDeskResponse deserialize() throws IOException {
+        return reader.readValue(payload);
+    }
+
+    private static String code(int i) {
+        return new String(new char[]{(char) ('A' + i / 676 % 26), (char) ('A' + i / 26 % 26), (char) ('A' + i % 26)});
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.currency.CurrencyDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of serializing {@link CurrencyDTO} to JSON bytes with a Boot-configured {@link ObjectMapper},
+ * for a single DTO and for a list the size of a {@code GET /api/currency} response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurrencyJsonBenchmark {
+    @Param({"3", "100"})
+    public int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private CurrencyDTO dto;
+    private List<CurrencyDTO> dtos;
+
+    @Setup
+    public void setup() {
+        dtos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CurrencyDTO currency = new CurrencyDTO();
+            currency.setCode(String.format("C%02d", i));
+            currency.setCurrencyNameCN("幣別" + i);
+            currency.setRateFloat(new BigDecimal("66370.9300").add(BigDecimal.valueOf(i)));
+            currency.setUpdated(Timestamp.valueOf("2024-10-12 08:15:30"));
+            currency.setLanguage("語言: 中文");
+            dtos.add(currency);
+        }
+        dto = dtos.get(0);
+    }
+
+    @Benchmark
+    public byte[] single() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] list() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.currency.CurrencyDTO;
+import com.example.demo.currency.CurrencyEntity;
+import com.example.demo.currency.CurrencyMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of mapping {@link CurrencyEntity} to {@link CurrencyDTO}: ModelMapper (before) vs {@link CurrencyMapper} (after),
+ * plus the full {@code CurrencyController.supportI18n} path that also resolves the language message.
+ * Run with {@code -prof gc} to compare allocation per row as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurrencyMapperBenchmark {
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final CurrencyMapper currencyMapper = new CurrencyMapper();
+    private final ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+    private final Locale locale = Locale.TAIWAN;
+    private CurrencyEntity entity;
+
+    @Setup
+    public void setup() {
+        entity = new CurrencyEntity();
+        entity.setId(1L);
+        entity.setCode("USD");
+        entity.setCurrencyNameCN("美元");
+        entity.setRateFloat(new BigDecimal("66370.9300"));
+        entity.setUpdated(Timestamp.valueOf("2024-10-12 08:15:30"));
+
+        // 與 application.properties 的 spring.messages.* 相同
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding("UTF-8");
+    }
+
+    @Benchmark
+    public CurrencyDTO modelMapper() {
+        return modelMapper.map(entity, CurrencyDTO.class);
+    }
+
+    @Benchmark
+    public CurrencyDTO currencyMapper() {
+        return currencyMapper.toDTO(entity);
+    }
+
+    @Benchmark
+    public CurrencyDTO supportI18n() {
+        CurrencyDTO dto = currencyMapper.toDTO(entity);
+        dto.setLanguage(messageSource.getMessage("language", new Object[]{locale.getDisplayLanguage(locale)}, locale));
+        return dto;
+    }
+}
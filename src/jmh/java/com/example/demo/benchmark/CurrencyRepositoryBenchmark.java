@@ -0,0 +1,80 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.currency.CurrencyEntity;
+import com.example.demo.currency.CurrencyEntityRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CurrencyEntityRepository} {@code findByCode} and {@code findAll} against the in-memory H2 database,
+ * with the table seeded to 100 or 1000 rows. Starts the application context without a web server, polling
+ * or SQL logging, so only JPA and the database are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurrencyRepositoryBenchmark {
+    @Param({"100", "1000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private CurrencyEntityRepository repository;
+    private String[] codes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                // 以命令列參數傳入，才能覆寫 application.properties
+                .run("--currency.polling.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.demo=WARN");
+        repository = context.getBean(CurrencyEntityRepository.class);
+
+        List<CurrencyEntity> entities = new ArrayList<>(rows);
+        codes = new String[rows];
+        Timestamp updated = Timestamp.valueOf("2024-10-12 08:15:30");
+        for (int i = 0; i < rows; i++) {
+            codes[i] = String.format("C%04d", i);
+            CurrencyEntity entity = new CurrencyEntity();
+            entity.setCode(codes[i]);
+            entity.setCurrencyNameCN("幣別" + i);
+            entity.setRateFloat(new BigDecimal("1000.1234").add(BigDecimal.valueOf(i)));
+            entity.setUpdated(updated);
+            entities.add(entity);
+        }
+        repository.saveAll(entities);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CurrencyEntity findByCode() {
+        String code = codes[next];
+        next = next + 1 == codes.length ? 0 : next + 1;
+        return repository.findByCode(code);
+    }
+
+    @Benchmark
+    public List<CurrencyEntity> findAll() {
+        return repository.findAll(Sort.by(Sort.Direction.ASC, "code"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.util.EncryptionUtil;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link EncryptionUtil} against the former per-call {@code Cipher.getInstance} implementation,
+ * under 1, 8 and 64 concurrent threads (see the nested classes).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class EncryptionUtilBenchmark {
+    private static final byte[] KEY = "1234567890123456".getBytes();
+    private static final String CODE = "USD";
+    private static final String TOKEN = "EPq9oFB3PKMMIpa6Z6HJSw==";
+
+    @Benchmark
+    public String perCallEncrypt() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(KEY, "AES"));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(CODE.getBytes()));
+    }
+
+    @Benchmark
+    public String perCallDecrypt() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(KEY, "AES"));
+        return new String(cipher.doFinal(Base64.getDecoder().decode(TOKEN)));
+    }
+
+    @Benchmark
+    public String pooledEncrypt() throws Exception {
+        return EncryptionUtil.encrypt(CODE);
+    }
+
+    @Benchmark
+    public String pooledDecrypt() throws Exception {
+        return EncryptionUtil.decrypt(TOKEN);
+    }
+
+    @Threads(1)
+    public static class Threads1 extends EncryptionUtilBenchmark {
+    }
+
+    @Threads(8)
+    public static class Threads8 extends EncryptionUtilBenchmark {
+    }
+
+    @Threads(64)
+    public static class Threads64 extends EncryptionUtilBenchmark {
+    }
+}
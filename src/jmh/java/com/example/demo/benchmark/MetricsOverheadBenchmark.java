@@ -0,0 +1,55 @@
+package com.example.demo.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of timing a call the way {@code http.server.requests} does (start a sample, stop it
+ * into a tagged timer) on a {@link PrometheusMeterRegistry}: disabled, plain timer, the bounded histogram
+ * configured in application.properties, and an unbounded histogram.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    @Param({"disabled", "timer", "boundedHistogram", "defaultHistogram"})
+    public String mode;
+
+    private MeterRegistry registry;
+    private Timer timer;
+
+    @Setup
+    public void setup() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        if (mode.equals("disabled")) {
+            registry.config().meterFilter(MeterFilter.deny());
+        }
+        Timer.Builder builder = Timer.builder("http.server.requests")
+                .tags("method", "GET", "uri", "/api/currency", "status", "200", "outcome", "SUCCESS", "exception", "none");
+        switch (mode) {
+            case "boundedHistogram" -> builder.publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(10));
+            case "defaultHistogram" -> builder.publishPercentileHistogram();
+            default -> {
+            }
+        }
+        timer = builder.register(registry);
+    }
+
+    @Benchmark
+    public long timedRequest() {
+        Timer.Sample sample = Timer.start(registry);
+        return sample.stop(timer);
+    }
+}
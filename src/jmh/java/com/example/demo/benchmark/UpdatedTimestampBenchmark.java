@@ -0,0 +1,43 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.currency.UpdatedTimestampFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering {@code CurrencyDTO.updated}: a new SimpleDateFormat per call (before),
+ * the shared DateTimeFormatter, and the shared formatter behind the per-second cache (after).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdatedTimestampBenchmark {
+    private Timestamp timestamp;
+
+    @Setup
+    public void setup() {
+        timestamp = Timestamp.valueOf("2024-10-12 08:15:30");
+    }
+
+    @Benchmark
+    public String simpleDateFormatPerCall() {
+        SimpleDateFormat sdf = new SimpleDateFormat(UpdatedTimestampFormatter.PATTERN);
+        return sdf.format(timestamp);
+    }
+
+    @Benchmark
+    public String sharedFormatter() {
+        return UpdatedTimestampFormatter.formatUncached(timestamp);
+    }
+
+    @Benchmark
+    public String sharedFormatterCached() {
+        return UpdatedTimestampFormatter.format(timestamp);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.demo.coindesk.CoinDeskResponse;
+import com.example.demo.config.WebClientLoggingFilter;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading a CoinDesk payload through WebClient without a logging filter, with
+ * {@link WebClientLoggingFilter} (DEBUG off and on) and with the former filter that buffered the body
+ * into a String and rebuilt the response. Loggers are set up without appenders, so only the
+ * filtering itself is measured, not console output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebClientLoggingBenchmark {
+    private static final String PAYLOAD = """
+            {"time":{"updated":"Oct 12, 2024 08:15:30 UTC","updatedISO":"2024-10-12T08:15:30+00:00","updateduk":"Oct 12, 2024 at 09:15 BST"},
+            "disclaimer":"This data was produced from the CoinDesk Bitcoin Price Index (USD). Non-USD currency data converted using hourly conversion rate from openexchangerates.org",
+            "chartName":"Bitcoin",
+            "bpi":{"USD":{"code":"USD","symbol":"&#36;","rate":"66,370.926","description":"United States Dollar","rate_float":66370.9263},
+            "GBP":{"code":"GBP","symbol":"&pound;","rate":"51,553.000","description":"British Pound Sterling","rate_float":51553.0},
+            "EUR":{"code":"EUR","symbol":"&euro;","rate":"61,564.941","description":"Euro","rate_float":61564.9412}}}
+            """;
+    // 模擬網路上分段抵達的回應
+    private static final int CHUNK_SIZE = 256;
+
+    @Param({"none", "filterDebugOff", "filterDebugOn", "legacyBuffering"})
+    public String mode;
+
+    private WebClient webClient;
+
+    @Setup
+    public void setup() {
+        Logger filterLogger = (Logger) LoggerFactory.getLogger(WebClientLoggingFilter.class);
+        filterLogger.setAdditive(false);
+        filterLogger.setLevel(mode.equals("filterDebugOff") ? Level.INFO : Level.DEBUG);
+        Logger legacyLogger = (Logger) LoggerFactory.getLogger(WebClientLoggingBenchmark.class);
+        legacyLogger.setAdditive(false);
+        legacyLogger.setLevel(Level.DEBUG);
+
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(upstream());
+        switch (mode) {
+            case "filterDebugOff", "filterDebugOn" -> builder.filter(new WebClientLoggingFilter(2048));
+            case "legacyBuffering" -> builder.filter(legacyLogResponse(legacyLogger));
+            default -> {
+            }
+        }
+        webClient = builder.build();
+    }
+
+    @Benchmark
+    public CoinDeskResponse readCurrentPrice() {
+        return webClient.get()
+                .uri("https://api.coindesk.com/v1/bpi/currentprice.json")
+                .retrieve()
+                .bodyToMono(CoinDeskResponse.class)
+                .block();
+    }
+
+    private static ExchangeFunction upstream() {
+        byte[] bytes = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+        return request -> Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.OK)
+                .header("Content-Type", "application/json")
+                .body(Flux.range(0, (bytes.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                        .map(i -> (DataBuffer) DefaultDataBufferFactory.sharedInstance
+                                .wrap(ByteBuffer.wrap(bytes, i * CHUNK_SIZE, Math.min(CHUNK_SIZE, bytes.length - i * CHUNK_SIZE)))))
+                .build());
+    }
+
+    // 先前 WebClientConfig 的做法：整個 body 讀成 String 再重建 ClientResponse
+    private static ExchangeFilterFunction legacyLogResponse(Logger logger) {
+        return ExchangeFilterFunction.ofResponseProcessor(clientResponse -> {
+            logger.debug("Response Status: {}", clientResponse.statusCode());
+            clientResponse.headers().asHttpHeaders().forEach((name, values) ->
+                    values.forEach(value -> logger.info("{}: {}", name, value)));
+            return clientResponse.bodyToMono(String.class)
+                    .flatMap(body -> {
+                        logger.debug("Response Body: {}", body);
+                        return Mono.just(clientResponse.mutate().body(body).build());
+                    });
+        });
+    }
+}
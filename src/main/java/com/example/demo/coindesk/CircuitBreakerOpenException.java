@@ -0,0 +1,7 @@
+package com.example.demo.coindesk;
+
+public class CircuitBreakerOpenException extends RuntimeException {
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.demo.coindesk;
+
+import com.example.demo.config.BaseLogger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.retry.Retry;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fetches the CoinDesk current price with bounded timeouts, jittered retry and a circuit breaker.
+ * <p>
+ * Requests carry {@code If-None-Match}/{@code If-Modified-Since} from the last stored payload; a
+ * {@code 304}, or a body whose {@code updatedISO} matches the stored one, completes empty so callers
+ * skip the write entirely. Validators only move forward through {@link #remember(CoinDeskPayload)},
+ * so a payload that failed to persist is fetched again next time.
+ * <p>
+ * Each fetch is timed in {@code coindesk.fetch}, tagged with its outcome ({@code changed},
+ * {@code not_modified}, {@code unchanged}, {@code error} or {@code breaker_open}); retries are counted
+ * in {@code coindesk.fetch.retries}.
+ */
+@Component
+public class CoinDeskClient extends BaseLogger {
+    private final WebClient webClient;
+    private final CoinDeskProperties properties;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Counter retries;
+
+    private volatile Validators validators = new Validators(null, null, null);
+
+    @Autowired
+    public CoinDeskClient(WebClient.Builder webClientBuilder, CoinDeskProperties properties, MeterRegistry meterRegistry) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        this.webClient = webClientBuilder
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.properties = properties;
+        this.circuitBreaker = new CircuitBreaker(properties.getBreaker().getFailureThreshold(), properties.getBreaker().getOpenDuration());
+        this.meterRegistry = meterRegistry;
+        this.retries = Counter.builder("coindesk.fetch.retries")
+                .description("CoinDesk requests retried after a failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the new payload, or empty when upstream reports no change since the last stored one
+     */
+    public Mono<CoinDeskPayload> fetchIfChanged() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            if (!circuitBreaker.tryAcquire()) {
+                record(start, "breaker_open");
+                return Mono.error(new CircuitBreakerOpenException("CoinDesk circuit breaker is open"));
+            }
+            Validators current = validators;
+            AtomicBoolean reported = new AtomicBoolean();
+            CoinDeskProperties.Retry retry = properties.getRetry();
+            return webClient.get()
+                    .uri(properties.getPath())
+                    .headers(headers -> {
+                        if (current.eTag != null) {
+                            headers.set(HttpHeaders.IF_NONE_MATCH, current.eTag);
+                        }
+                        if (current.lastModified != null) {
+                            headers.set(HttpHeaders.IF_MODIFIED_SINCE, current.lastModified);
+                        }
+                    })
+                    .exchangeToMono(response -> {
+                        if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                            return response.releaseBody().then(Mono.just(Fetch.NOT_MODIFIED));
+                        }
+                        if (!response.statusCode().is2xxSuccessful()) {
+                            return response.createError();
+                        }
+                        HttpHeaders headers = response.headers().asHttpHeaders();
+                        String eTag = headers.getETag();
+                        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+                        return response.bodyToMono(CoinDeskResponse.class)
+                                .map(body -> new Fetch(new CoinDeskPayload(body, eTag, lastModified)));
+                    })
+                    .timeout(properties.getReadTimeout())
+                    .retryWhen(Retry.backoff(Math.max(0, retry.getMaxAttempts() - 1), retry.getInitialBackoff())
+                            .maxBackoff(retry.getMaxBackoff())
+                            .jitter(retry.getJitter())
+                            .filter(CoinDeskClient::isRetryable)
+                            .doBeforeRetry(signal -> retries.increment())
+                            .doBeforeRetry(signal -> logger.debug("retrying CoinDesk request ({}): {}",
+                                    signal.totalRetries() + 1, signal.failure().toString()))
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .timeout(properties.getDeadline())
+                    .doOnSuccess(fetch -> report(reported, true))
+                    .doOnError(e -> report(reported, false))
+                    // 被取消時試探請求沒有結果，視為失敗以免斷路器停在半開
+                    .doOnCancel(() -> report(reported, false))
+                    .doOnError(e -> record(start, "error"))
+                    .flatMap(fetch -> {
+                        if (fetch.payload == null) {
+                            record(start, "not_modified");
+                            return Mono.empty();
+                        }
+                        if (unchanged(fetch, current)) {
+                            record(start, "unchanged");
+                            return Mono.empty();
+                        }
+                        record(start, "changed");
+                        return Mono.just(fetch.payload);
+                    });
+        });
+    }
+
+    /**
+     * Records the validators of a payload that has been stored, so the next fetch can be conditional.
+     */
+    public void remember(CoinDeskPayload payload) {
+        validators = new Validators(payload.eTag(), payload.lastModified(), payload.updatedISO());
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private void report(AtomicBoolean reported, boolean success) {
+        if (!reported.compareAndSet(false, true)) {
+            return;
+        }
+        if (success) {
+            circuitBreaker.onSuccess();
+        } else {
+            circuitBreaker.onFailure();
+        }
+    }
+
+    private static boolean unchanged(Fetch fetch, Validators current) {
+        return current.updatedISO != null && Objects.equals(current.updatedISO, fetch.payload.updatedISO());
+    }
+
+    private void record(long start, String outcome) {
+        Timer.builder("coindesk.fetch")
+                .description("CoinDesk fetch latency including retries")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        if (e instanceof TimeoutException || e instanceof WebClientRequestException) {
+            return true;
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError()
+                    || responseException.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return false;
+    }
+
+    private record Fetch(CoinDeskPayload payload) {
+        static final Fetch NOT_MODIFIED = new Fetch(null);
+    }
+
+    private record Validators(String eTag, String lastModified, String updatedISO) {
+    }
+}
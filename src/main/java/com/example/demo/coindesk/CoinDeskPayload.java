@@ -0,0 +1,11 @@
+package com.example.demo.coindesk;
+
+/**
+ * A changed CoinDesk response together with the validators it was served with; handed back to
+ * {@link CoinDeskClient#remember(CoinDeskPayload)} once it has been stored.
+ */
+public record CoinDeskPayload(CoinDeskResponse response, String eTag, String lastModified) {
+    public String updatedISO() {
+        return response.getTime() == null ? null : response.getTime().getUpdatedISO();
+    }
+}
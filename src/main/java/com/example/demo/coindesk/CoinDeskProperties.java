@@ -0,0 +1,43 @@
+package com.example.demo.coindesk;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "coindesk")
+public class CoinDeskProperties {
+    private String baseUrl = "https://api.coindesk.com";
+    private String path = "/v1/bpi/currentprice.json";
+    // 建立連線的逾時
+    private Duration connectTimeout = Duration.ofSeconds(3);
+    // 單次請求 (含讀取回應內容) 的逾時
+    private Duration readTimeout = Duration.ofSeconds(5);
+    // 整次抓取 (含所有重試) 的上限，避免排程工作卡住
+    private Duration deadline = Duration.ofSeconds(30);
+    private final Retry retry = new Retry();
+    private final Breaker breaker = new Breaker();
+
+    @Getter
+    @Setter
+    public static class Retry {
+        // 含第一次請求的總嘗試次數
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(500);
+        private Duration maxBackoff = Duration.ofSeconds(5);
+        // 退避時間的隨機比例 (0 ~ 1)，避免多個實例同時重試
+        private double jitter = 0.5;
+    }
+
+    @Getter
+    @Setter
+    public static class Breaker {
+        // 連續失敗幾次後斷路
+        private int failureThreshold = 3;
+        // 斷路後多久允許一次試探請求
+        private Duration openDuration = Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.coindesk;
+
+import com.example.demo.currency.ScaledRate;
+import com.example.demo.provider.ProviderRates;
+import com.example.demo.provider.RateProvider;
+import com.example.demo.provider.RateQuote;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link RateProvider} backed by the CoinDesk BPI. CoinDesk reports no volume, so its quotes only
+ * weigh in through the median.
+ * <p>
+ * When {@link CoinDeskClient} reports no change, the last stored rates are returned as unchanged so
+ * they still take part in the aggregate.
+ */
+@Component
+public class CoinDeskRateProvider implements RateProvider {
+    public static final String NAME = "coindesk";
+
+    private final CoinDeskClient coinDeskClient;
+
+    private volatile Pending pending;
+    private volatile ProviderRates stored;
+
+    @Autowired
+    public CoinDeskRateProvider(CoinDeskClient coinDeskClient) {
+        this.coinDeskClient = coinDeskClient;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Mono<ProviderRates> fetch() {
+        return coinDeskClient.fetchIfChanged()
+                .map(payload -> {
+                    ProviderRates rates = toRates(payload, true);
+                    pending = new Pending(rates, payload);
+                    return rates;
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> stored));
+    }
+
+    @Override
+    public void onStored(ProviderRates rates) {
+        Pending current = pending;
+        if (current != null && current.rates == rates) {
+            coinDeskClient.remember(current.payload);
+            stored = toRates(current.payload, false);
+            pending = null;
+        }
+    }
+
+    private static ProviderRates toRates(CoinDeskPayload payload, boolean changed) {
+        Map<String, RateQuote> quotes = new HashMap<>();
+        payload.response().getBpi().forEach((code, info) -> {
+            if (info.getScaledRate() != ScaledRate.NONE) {
+                quotes.put(code, new RateQuote(code, info.getScaledRate(), 0));
+            }
+        });
+        Instant updated = ZonedDateTime.parse(payload.updatedISO()).toInstant();
+        return new ProviderRates(NAME, updated, Map.copyOf(quotes), changed);
+    }
+
+    private record Pending(ProviderRates rates, CoinDeskPayload payload) {
+    }
+}
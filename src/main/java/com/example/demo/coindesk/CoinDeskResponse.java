@@ -1,10 +1,12 @@
 package com.example.demo.coindesk;
 
+import com.example.demo.currency.ScaledRate;
+import com.example.demo.currency.ScaledRateDeserializer;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.util.Map;
 
 @Getter
@@ -28,6 +30,7 @@ public class CoinDeskResponse {
         private String description;
         private String rate;
         @JsonProperty("rate_float")
-        private BigDecimal rateFloat;  // 對應 JSON 中的 rate_float
+        @JsonDeserialize(using = ScaledRateDeserializer.class)
+        private long scaledRate = ScaledRate.NONE;  // 對應 JSON 中的 rate_float，以 ScaledRate 定點數保存
     }
 }
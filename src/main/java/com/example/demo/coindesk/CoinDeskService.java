@@ -2,86 +2,111 @@ package com.example.demo.coindesk;
 
 import com.example.demo.currency.CurrencyEntity;
 import com.example.demo.currency.CurrencyEntityRepository;
+import com.example.demo.currency.CurrencyRateCache;
 import com.example.demo.config.BaseLogger;
+import com.example.demo.history.MappedRateHistoryStore;
+import com.example.demo.history.RateHistoryService;
+import com.example.demo.provider.RateAggregationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.MessageSource;
-import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Timestamp;
 import java.time.Instant;
-import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class CoinDeskService extends BaseLogger {
-    private final WebClient webClient;
+    private final RateAggregationService rateAggregationService;
     private final MessageSource messageSource;
     private final CurrencyEntityRepository currencyEntityRepository;
+    private final CurrencyRateCache currencyRateCache;
+    private final RateHistoryService rateHistoryService;
+    private final MappedRateHistoryStore mappedRateHistoryStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor taskExecutor;
 
     @Autowired
-    public CoinDeskService(WebClient.Builder webClientBuilder, MessageSource messageSource, CurrencyEntityRepository currencyEntityRepository) {
-        this.webClient = webClientBuilder.baseUrl("https://api.coindesk.com").build();
+    public CoinDeskService(RateAggregationService rateAggregationService, MessageSource messageSource, CurrencyEntityRepository currencyEntityRepository,
+                           CurrencyRateCache currencyRateCache, RateHistoryService rateHistoryService, MappedRateHistoryStore mappedRateHistoryStore,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.rateAggregationService = rateAggregationService;
         this.messageSource = messageSource;
         this.currencyEntityRepository = currencyEntityRepository;
+        this.currencyRateCache = currencyRateCache;
+        this.rateHistoryService = rateHistoryService;
+        this.mappedRateHistoryStore = mappedRateHistoryStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
     }
 
-    @Async
+    /**
+     * Fetches every rate provider, then stores the aggregated rates. Completes with an empty list when
+     * no provider reports a change since the last stored round.
+     * <p>
+     * Not {@code @Async}: the fetch is already non-blocking, and the proxy would hold a {@code taskExecutor}
+     * thread in {@code Future.get()} for the whole upstream call. Only the database write uses that pool.
+     */
     public CompletableFuture<List<CurrencyEntity>> getCurrentPrice() {
-        return webClient.get()
-                .uri("/v1/bpi/currentprice.json")
-                .retrieve()
-                .bodyToMono(CoinDeskResponse.class)
+        return rateAggregationService.aggregate()
                 .toFuture()
-                .thenCompose(response -> {
-                    ZonedDateTime zonedDateTime = ZonedDateTime.parse(response.getTime().getUpdatedISO());
-                    Instant instant = zonedDateTime.toInstant();
-                    Timestamp timestamp = Timestamp.from(instant);
-
-                    List<CompletableFuture<CurrencyEntity>> futures = response.getBpi().entrySet().stream()
-                                    .map(entry -> {
-                                        String key = entry.getKey();
-                                        String codeCN = messageSource.getMessage(key, null, Locale.TAIWAN);
-                                        CurrencyEntity existingEntity = currencyEntityRepository.findByCode(key);
+                // 回應在 Netty 執行緒完成，資料庫寫入改回 taskExecutor 執行
+                .thenApplyAsync(aggregated -> {
+                    if (aggregated == null) {
+                        logger.debug("provider rates unchanged, skipping update");
+                        return List.<CurrencyEntity>of();
+                    }
+                    List<CurrencyEntity> savedEntities = upsert(aggregated.rates(), aggregated.updated());
+                    currencyRateCache.putAll(savedEntities);
+                    // 交易提交後才寫入欄位檔，避免回滾的資料留在檔案中
+                    mappedRateHistoryStore.append(savedEntities);
+                    rateAggregationService.onStored(aggregated);
+                    return savedEntities;
+                }, taskExecutor);
+    }
 
-                                        if (existingEntity != null) {
-                                            existingEntity.setUpdated(timestamp);
-                                            existingEntity.setRateFloat(entry.getValue().getRateFloat());
-                                            existingEntity.setCurrencyNameCN(codeCN);
-                                            return CompletableFuture.supplyAsync(() -> currencyEntityRepository.save(existingEntity));
-                                        } else {
-                                            CurrencyEntity newEntity = new CurrencyEntity();
-                                            newEntity.setUpdated(timestamp);
-                                            newEntity.setCode(key);
-                                            newEntity.setCurrencyNameCN(codeCN);
-                                            newEntity.setRateFloat(entry.getValue().getRateFloat());
-                                            return CompletableFuture.supplyAsync(() -> currencyEntityRepository.save(newEntity));
-                                        }
-                                    })
-                                    .toList();
+    /**
+     * Writes every aggregated rate in one transaction: one IN query for the existing rows,
+     * then a single JDBC batch for the inserts and updates, plus the matching history rows.
+     */
+    private List<CurrencyEntity> upsert(Map<String, Long> rates, Instant updated) {
+        Timestamp timestamp = Timestamp.from(updated);
 
-                            // 使用 CompletableFuture.allOf() 等待所有操作完成
-                            return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                                    .thenApply(v -> futures.stream()
-                                            .map(CompletableFuture::join)
-                                            .collect(Collectors.toList()));
-                        }
-                );
-    }
+        return transactionTemplate.execute(status -> {
+            Map<String, CurrencyEntity> existingEntities = currencyEntityRepository.findByCodeIn(rates.keySet()).stream()
+                    .collect(Collectors.toMap(CurrencyEntity::getCode, Function.identity()));
 
-    // 使用 @Scheduled 註解定義定時任務
-    @Scheduled(cron = "00 00 00 * * ?")
-    public void scheduleTask() {
-        getCurrentPrice().thenAccept(currencyEntities -> {
-                currencyEntities.forEach(entity -> {
-                    logger.debug("midnight auto updated: " + "code:{} name:{} rate:{}", entity.getCode(), entity.getCurrencyNameCN(), entity.getRateFloat());
-                });
+            List<CurrencyEntity> entities = new ArrayList<>(rates.size());
+            rates.forEach((key, boxedRate) -> {
+                long rate = boxedRate;
+                CurrencyEntity entity = existingEntities.get(key);
+                if (entity == null) {
+                    entity = new CurrencyEntity();
+                    entity.setCode(key);
+                }
+                // 沒有對應翻譯的新幣別以代碼作為名稱
+                entity.setCurrencyNameCN(messageSource.getMessage(key, null, key, Locale.TAIWAN));
+                entity.setUpdated(timestamp);
+                // 匯率未變動時保留原本的 BigDecimal，不產生新物件也不讓欄位變髒
+                if (entity.getScaledRate() != rate) {
+                    entity.setScaledRate(rate);
+                }
+                entities.add(entity);
+            });
+            List<CurrencyEntity> savedEntities = currencyEntityRepository.saveAll(entities);
+            rateHistoryService.record(savedEntities);
+            return savedEntities;
         });
     }
 }
@@ -0,0 +1,21 @@
+package com.example.demo.coindesk;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.polling")
+public class RatePollingProperties {
+    private boolean enabled = true;
+    // 啟動後第一次抓取的延遲
+    private Duration initialDelay = Duration.ZERO;
+    // 資料有變動時的抓取間隔
+    private Duration interval = Duration.ofMinutes(1);
+    // 資料未變動或失敗時逐次拉長間隔的倍數與上限
+    private double backoffMultiplier = 2.0;
+    private Duration maxInterval = Duration.ofMinutes(15);
+}
@@ -0,0 +1,171 @@
+package com.example.demo.coindesk;
+
+import com.example.demo.config.BaseLogger;
+import com.example.demo.currency.CurrencyEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls {@link CoinDeskService#getCurrentPrice()} on {@code currency.polling.interval}, starting at boot.
+ * <p>
+ * Each tick waits for its fetch, up to {@code coindesk.deadline}, so the next tick is scheduled from the
+ * fetch's completion with the interval that fetch produced. At most one fetch is in flight: a tick that
+ * finds a fetch still running past that wait is skipped, so futures never pile up behind a slow upstream. While rates are unchanged, or fetches fail, the interval
+ * is multiplied by {@code backoff-multiplier} up to {@code max-interval}; the first changed round
+ * resets it.
+ * <p>
+ * Metrics: {@code currency.poll.fetch} (timer, tagged by outcome), {@code currency.poll.rows.changed},
+ * {@code currency.poll.skipped}, {@code currency.poll.last.success} (epoch seconds) and
+ * {@code currency.poll.interval} (seconds).
+ */
+@Component
+public class RatePollingScheduler extends BaseLogger implements SchedulingConfigurer {
+    private final CoinDeskService coinDeskService;
+    private final RatePollingProperties properties;
+    private final CoinDeskProperties coinDeskProperties;
+
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+    private final AtomicLong lastSuccessEpochSecond = new AtomicLong();
+    private volatile Duration currentInterval;
+
+    private final Timer changedTimer;
+    private final Timer unchangedTimer;
+    private final Timer failedTimer;
+    private final Counter rowsChanged;
+    private final Counter skipped;
+
+    @Autowired
+    public RatePollingScheduler(CoinDeskService coinDeskService, RatePollingProperties properties,
+                                CoinDeskProperties coinDeskProperties, MeterRegistry meterRegistry) {
+        this.coinDeskService = coinDeskService;
+        this.properties = properties;
+        this.coinDeskProperties = coinDeskProperties;
+        this.currentInterval = properties.getInterval();
+
+        this.changedTimer = fetchTimer(meterRegistry, "changed");
+        this.unchangedTimer = fetchTimer(meterRegistry, "unchanged");
+        this.failedTimer = fetchTimer(meterRegistry, "failed");
+        this.rowsChanged = Counter.builder("currency.poll.rows.changed")
+                .description("Currency rows written by polling")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("currency.poll.skipped")
+                .description("Polling ticks skipped because the previous fetch was still running")
+                .register(meterRegistry);
+        Gauge.builder("currency.poll.last.success", lastSuccessEpochSecond, AtomicLong::get)
+                .description("Epoch second of the last successful poll")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("currency.poll.interval", this, scheduler -> scheduler.currentInterval.toMillis() / 1000.0)
+                .description("Current polling interval")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        if (!properties.isEnabled()) {
+            logger.info("currency polling disabled");
+            return;
+        }
+        taskRegistrar.addTriggerTask(this::poll, this::nextExecution);
+    }
+
+    private Instant nextExecution(TriggerContext triggerContext) {
+        Instant lastCompletion = triggerContext.lastCompletion();
+        if (lastCompletion == null) {
+            return triggerContext.getClock().instant().plus(properties.getInitialDelay());
+        }
+        return lastCompletion.plus(currentInterval);
+    }
+
+    void poll() {
+        if (!inFlight.compareAndSet(false, true)) {
+            skipped.increment();
+            logger.debug("previous poll still running, skipping this tick");
+            return;
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<List<CurrencyEntity>> future;
+        try {
+            future = coinDeskService.getCurrentPrice();
+        } catch (RuntimeException e) {
+            // 例如 taskExecutor 已滿而拒絕
+            onFailure(start, e);
+            return;
+        }
+        CompletableFuture<List<CurrencyEntity>> recorded = future.whenComplete((savedEntities, e) -> {
+            if (e != null) {
+                onFailure(start, e);
+            } else {
+                onSuccess(start, savedEntities);
+            }
+        });
+
+        // 等到結果處理完才結束這次排程，下次排程才會從完成時間與更新後的間隔起算
+        try {
+            recorded.get(coinDeskProperties.getDeadline().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // 已在 onFailure 記錄
+        } catch (TimeoutException e) {
+            logger.warn("currency poll still running after {}, later ticks are skipped until it finishes", coinDeskProperties.getDeadline());
+        }
+    }
+
+    private void onSuccess(long start, List<CurrencyEntity> savedEntities) {
+        lastSuccessEpochSecond.set(Instant.now().getEpochSecond());
+        if (savedEntities.isEmpty()) {
+            unchangedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            backOff();
+        } else {
+            changedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            rowsChanged.increment(savedEntities.size());
+            currentInterval = properties.getInterval();
+            savedEntities.forEach(entity -> logger.debug("auto updated: code:{} name:{} rate:{}",
+                    entity.getCode(), entity.getCurrencyNameCN(), entity.getRateFloat()));
+        }
+        inFlight.set(false);
+    }
+
+    private void onFailure(long start, Throwable e) {
+        failedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        logger.warn("currency poll failed: {}", e.toString());
+        backOff();
+        inFlight.set(false);
+    }
+
+    private void backOff() {
+        long next = (long) (currentInterval.toMillis() * Math.max(1.0, properties.getBackoffMultiplier()));
+        currentInterval = Duration.ofMillis(Math.min(next, properties.getMaxInterval().toMillis()));
+    }
+
+    Duration getCurrentInterval() {
+        return currentInterval;
+    }
+
+    private static Timer fetchTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("currency.poll.fetch")
+                .description("Time from poll start until the fetched rates are stored")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "api.logging")
+public class ApiLoggingProperties {
+    // 記錄比例 0.0 ~ 1.0
+    private double sampleRate = 1.0;
+    // 單筆 request/response 記錄的最大字元數
+    private int maxBodyLength = 2048;
+    // 待寫出的記錄上限，超過時直接丟棄
+    private int queueCapacity = 1024;
+    // 個別 API 的設定，key 為 <Controller 類別名稱>.<方法名稱>，例如 api.logging.endpoints[CurrencyController.getAllCurrency].sample-rate=0.1
+    private Map<String, Endpoint> endpoints = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+        private Double sampleRate;
+        private Integer maxBodyLength;
+    }
+}
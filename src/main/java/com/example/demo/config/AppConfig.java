@@ -1,23 +1,23 @@
 package com.example.demo.config;
 
-import org.modelmapper.ModelMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-import org.springframework.web.servlet.LocaleResolver;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Locale;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @Configuration
 @EnableAsync
-public class AppConfig implements WebMvcConfigurer {
+public class AppConfig {
     @Bean
     public ReloadableResourceBundleMessageSource messageSource() {
         ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
@@ -27,30 +27,41 @@ public class AppConfig implements WebMvcConfigurer {
         return messageSource;
     }
 
-    @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
-    }
-
+    /**
+     * Executor behind every {@code @Async} method and the ingestion pipeline. With
+     * {@code spring.threads.virtual.enabled=true} on JDK 21+ each task gets its own virtual thread,
+     * otherwise tasks run on a bounded platform thread pool sized by {@link AsyncExecutorProperties}.
+     * <p>
+     * The pool's {@code executor.*} gauges are bound by Spring Boot; rejected tasks are counted in
+     * {@code executor.rejected} before the usual {@link RejectedExecutionException}.
+     */
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(Environment environment, AsyncExecutorProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(properties.getConcurrencyLimit());
+            // 關閉時等待執行中的工作完成
+            executor.setTaskTerminationTimeout(10_000);
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
+        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setMaxPoolSize(properties.getMaxPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Counter rejected = Counter.builder("executor.rejected")
+                    .description("Tasks rejected because the pool and its queue were full")
+                    .tag("name", "taskExecutor")
+                    .register(registry);
+            executor.setRejectedExecutionHandler((task, pool) -> {
+                rejected.increment();
+                throw new RejectedExecutionException("Task " + task + " rejected from " + pool);
+            });
+        }
         executor.initialize();
         return executor;
     }
-
-    @Bean
-    public LocaleResolver localeResolver() {
-        List<Locale> supportedLocales = new ArrayList<>();
-        supportedLocales.add(Locale.TAIWAN);
-        supportedLocales.add(Locale.ENGLISH);
-
-        AcceptHeaderLocaleResolver acceptHeaderLocaleResolver = new AcceptHeaderLocaleResolver();
-        acceptHeaderLocaleResolver.setDefaultLocale(Locale.TAIWAN);
-        acceptHeaderLocaleResolver.setSupportedLocales(supportedLocales);
-        return acceptHeaderLocaleResolver;
-    }
 }
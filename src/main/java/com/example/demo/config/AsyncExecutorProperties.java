@@ -0,0 +1,17 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "async.executor")
+public class AsyncExecutorProperties {
+    // 以下三項只用於執行緒池模式 (spring.threads.virtual.enabled=false)
+    private int corePoolSize = 5;
+    private int maxPoolSize = 10;
+    private int queueCapacity = 100;
+    // virtual thread 模式下同時執行的工作上限，-1 表示不限制
+    private int concurrencyLimit = -1;
+}
@@ -0,0 +1,190 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.temporal.TemporalAccessor;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Serializes and writes log entries on a single daemon thread.
+ * <p>
+ * {@link #offer} never blocks: the queue is a lock-free {@link ConcurrentLinkedQueue} bounded by an
+ * atomic counter, and entries beyond the capacity are dropped and counted. An accepted payload is captured
+ * on the calling thread, so later changes to a mutable argument or response cannot leak into the log:
+ * immutable scalars are kept as they are, anything else is serialized right away with a hard character
+ * limit, so a large response is cut off without being rendered in full. The writer thread only formats
+ * and writes.
+ */
+public class AsyncLogWriter implements AutoCloseable {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Logger logger;
+    private final ObjectMapper objectMapper;
+    private final int capacity;
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public AsyncLogWriter(Logger logger, ObjectMapper objectMapper, int capacity) {
+        this.logger = logger;
+        this.objectMapper = objectMapper;
+        this.capacity = capacity;
+        this.writerThread = new Thread(this::run, "api-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * @param message SLF4J message with a single {@code {}} placeholder for the rendered payload
+     * @return false if the queue was full and the entry was dropped
+     */
+    public boolean offer(String message, String endpoint, Object payload, int maxLength) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        queue.offer(new Entry(message, endpoint, capture(payload, maxLength), maxLength));
+        LockSupport.unpark(writerThread);
+        return true;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long reportedDrops = 0;
+        while (running || !queue.isEmpty()) {
+            Entry entry = queue.poll();
+            if (entry == null) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            size.decrementAndGet();
+            try {
+                logger.debug(entry.message, entry.endpoint, render(entry.payload, entry.maxLength));
+            } catch (RuntimeException e) {
+                // 記錄失敗不可讓寫出執行緒結束
+                logger.debug("unable to write api log for {}: {}", entry.endpoint, e.getMessage());
+            }
+
+            long drops = dropped.sum();
+            if (drops != reportedDrops && queue.isEmpty()) {
+                logger.debug("api log queue full, dropped {} entries so far", drops);
+                reportedDrops = drops;
+            }
+        }
+    }
+
+    private Object capture(Object payload, int maxLength) {
+        if (payload == null || payload instanceof String || payload instanceof Number || payload instanceof Boolean
+                || payload instanceof Character || payload instanceof Enum<?> || payload instanceof UUID
+                || payload instanceof TemporalAccessor) {
+            return payload;
+        }
+        return new Rendered(render(payload, maxLength));
+    }
+
+    String render(Object payload, int maxLength) {
+        if (payload instanceof Rendered rendered) {
+            return rendered.text;
+        }
+        if (payload instanceof Throwable throwable) {
+            return truncate(throwable.toString(), maxLength);
+        }
+        BoundedWriter writer = new BoundedWriter(maxLength);
+        try {
+            objectMapper.writeValue(writer, payload);
+        } catch (IOException | RuntimeException e) {
+            // Jackson 可能把 LimitReached 包成其他例外，以 writer 的狀態判斷
+            if (!writer.limitReached) {
+                return truncate(String.valueOf(payload), maxLength);
+            }
+        }
+        return writer.limitReached ? writer + "...(truncated)" : writer.toString();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength) + "...(truncated)";
+    }
+
+    private record Entry(String message, String endpoint, Object payload, int maxLength) {
+    }
+
+    private record Rendered(String text) {
+    }
+
+    /**
+     * Collects up to {@code limit} characters, then aborts serialization.
+     */
+    private static final class BoundedWriter extends Writer {
+        private final StringBuilder buffer = new StringBuilder();
+        private final int limit;
+        private boolean limitReached;
+
+        BoundedWriter(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            int remaining = limit - buffer.length();
+            buffer.append(chars, offset, Math.min(remaining, length));
+            if (length > remaining) {
+                limitReached = true;
+                throw new LimitReached();
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+
+        private static final class LimitReached extends IOException {
+            LimitReached() {
+                super("log payload limit reached");
+            }
+
+            @Override
+            public synchronized Throwable fillInStackTrace() {
+                return this;
+            }
+        }
+    }
+}
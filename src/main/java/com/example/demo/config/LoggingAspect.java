@@ -1,65 +1,129 @@
 package com.example.demo.config;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpSession;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Debug logging of every {@code @RestController} call.
+ * <p>
+ * Nothing is done unless DEBUG is enabled for this class. Calls are then sampled per endpoint
+ * ({@link ApiLoggingProperties}); sampled arguments and responses are handed to an {@link AsyncLogWriter},
+ * which captures an immutable, length-capped form of each at offer time and writes it off the request
+ * thread, dropping entries when it cannot keep up. Streams, servlet and exchange objects and streaming
+ * responses are not data and are skipped. Exceptions are logged and rethrown unchanged.
+ */
 @Component
 @Aspect
 public class LoggingAspect extends BaseLogger {
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // 不是資料的參數與回應：記錄沒有意義，之後在寫出執行緒讀取也不安全
+    private static final List<Class<?>> NON_DATA_TYPES = List.of(InputStream.class, OutputStream.class, Reader.class, Writer.class,
+            ServletRequest.class, ServletResponse.class, HttpSession.class, WebRequest.class, ServerWebExchange.class,
+            MultipartFile.class, StreamingResponseBody.class, ResponseBodyEmitter.class, Publisher.class);
+
+    private final ApiLoggingProperties properties;
+    private final AsyncLogWriter logWriter;
+    private final Map<Method, EndpointSettings> endpointSettings = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LoggingAspect(ApiLoggingProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.logWriter = new AsyncLogWriter(logger, objectMapper, properties.getQueueCapacity());
+    }
 
     // get all @RestController class api
     @Around("within(@org.springframework.web.bind.annotation.RestController *)")
     public Object logControllerRequests(ProceedingJoinPoint joinPoint) throws Throwable {
-        Object[] args = joinPoint.getArgs();
-        logger.debug("Incoming request to: {}", joinPoint.getSignature());
+        if (!logger.isDebugEnabled()) {
+            return joinPoint.proceed();
+        }
+        EndpointSettings settings = settingsFor(joinPoint);
+        if (settings.sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= settings.sampleRate) {
+            return joinPoint.proceed();
+        }
 
-        for (Object arg : args) {
-            try {
-                String json = objectMapper.writeValueAsString(arg);
-                logger.debug("Request Body: {}", json);
-            } catch (JsonProcessingException e) {
-                logger.debug("Request Body (non-serializable): {}", arg);
+        for (Object arg : joinPoint.getArgs()) {
+            if (!isData(arg)) {
+                continue;
             }
+            logWriter.offer("Request to {}: {}", settings.name, arg, settings.maxBodyLength);
         }
 
+        Object result;
         try {
-            Object result = joinPoint.proceed();
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            logWriter.offer("Error processing request {}: {}", settings.name, ex, settings.maxBodyLength);
+            throw ex;
+        }
 
-            if (result instanceof CompletableFuture) {
-                CompletableFuture<?> futureResult = (CompletableFuture<?>) result;
-                futureResult.thenAccept(response -> {
-                    try {
-                        String json = objectMapper.writeValueAsString(response);
-                        logger.debug("Response Body: {}", json);
-                    } catch (JsonProcessingException e) {
-                        logger.debug("Response Body (non-serializable): {}", response);
-                    }
-                }).exceptionally(ex -> {
-                    logger.debug("Error processing async response: {}", ex.getMessage());
-                    ex.printStackTrace();
-                    return null;
-                });
-            } else {
-                try {
-                    String json = objectMapper.writeValueAsString(result);
-                    logger.debug("Response Body: {}", json);
-                } catch (JsonProcessingException e) {
-                    logger.debug("Response Body (non-serializable): " + result);
+        if (result instanceof CompletableFuture<?> futureResult) {
+            futureResult.whenComplete((response, ex) -> {
+                if (ex != null) {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    logWriter.offer("Error processing async request {}: {}", settings.name, cause, settings.maxBodyLength);
+                } else if (isData(response)) {
+                    logWriter.offer("Response of {}: {}", settings.name, response, settings.maxBodyLength);
                 }
-            }
-
-            return result;
-        } catch (Throwable ex) {
-            logger.debug("Error processing request: {}", ex.getMessage());
-            ex.printStackTrace();
-            return "An error occurred: " + ex.getMessage();
+            });
+        } else if (isData(result)) {
+            logWriter.offer("Response of {}: {}", settings.name, result, settings.maxBodyLength);
         }
+        return result;
+    }
+
+    public long getDroppedCount() {
+        return logWriter.getDroppedCount();
+    }
+
+    @PreDestroy
+    public void close() {
+        logWriter.close();
+    }
+
+    private static boolean isData(Object payload) {
+        Object body = payload instanceof ResponseEntity<?> entity ? entity.getBody() : payload;
+        return body == null || NON_DATA_TYPES.stream().noneMatch(type -> type.isInstance(body));
+    }
+
+    private EndpointSettings settingsFor(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return endpointSettings.computeIfAbsent(method, m -> {
+            String name = m.getDeclaringClass().getSimpleName() + "." + m.getName();
+            ApiLoggingProperties.Endpoint endpoint = properties.getEndpoints().get(name);
+            double sampleRate = endpoint != null && endpoint.getSampleRate() != null ? endpoint.getSampleRate() : properties.getSampleRate();
+            int maxBodyLength = endpoint != null && endpoint.getMaxBodyLength() != null ? endpoint.getMaxBodyLength() : properties.getMaxBodyLength();
+            return new EndpointSettings(name, sampleRate, maxBodyLength);
+        });
+    }
+
+    private record EndpointSettings(String name, double sampleRate, int maxBodyLength) {
     }
 }
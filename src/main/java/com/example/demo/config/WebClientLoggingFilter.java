@@ -0,0 +1,66 @@
+package com.example.demo.config;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Debug logging of WebClient exchanges.
+ * <p>
+ * Request and response lines and headers are logged at DEBUG. The response body is not buffered: the
+ * filter looks at the {@link DataBuffer}s as they pass to the real consumer, copies at most
+ * {@code maxBodyLength} bytes of them and logs that prefix once the body completes. When DEBUG is off
+ * the exchange goes through untouched.
+ */
+public class WebClientLoggingFilter extends BaseLogger implements ExchangeFilterFunction {
+    private final int maxBodyLength;
+
+    public WebClientLoggingFilter(int maxBodyLength) {
+        this.maxBodyLength = maxBodyLength;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!logger.isDebugEnabled()) {
+            return next.exchange(request);
+        }
+        logger.debug("Request: {} {} headers={}", request.method(), request.url(), request.headers());
+        return next.exchange(request).map(response -> {
+            logger.debug("Response Status: {} {} headers={}", response.statusCode(), request.url(), response.headers().asHttpHeaders());
+            return response.mutate()
+                    .body(body -> tee(body, request))
+                    .build();
+        });
+    }
+
+    private Flux<DataBuffer> tee(Flux<DataBuffer> body, ClientRequest request) {
+        return Flux.defer(() -> {
+            // 每次訂閱各自保留前 maxBodyLength 個位元組
+            ByteArrayOutputStream prefix = new ByteArrayOutputStream(Math.min(maxBodyLength, 1024));
+            long[] total = new long[1];
+            return body
+                    .doOnNext(buffer -> {
+                        int readable = buffer.readableByteCount();
+                        int copy = Math.min(readable, maxBodyLength - prefix.size());
+                        if (copy > 0) {
+                            byte[] bytes = new byte[copy];
+                            int position = buffer.readPosition();
+                            for (int i = 0; i < copy; i++) {
+                                bytes[i] = buffer.getByte(position + i);
+                            }
+                            prefix.write(bytes, 0, copy);
+                        }
+                        total[0] += readable;
+                    })
+                    .doFinally(signal -> logger.debug("Response Body of {} ({} bytes, {}): {}{}", request.url(), total[0], signal,
+                            prefix.toString(StandardCharsets.UTF_8), total[0] > prefix.size() ? "...(truncated)" : ""));
+        });
+    }
+}
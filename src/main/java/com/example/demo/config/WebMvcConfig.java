@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Servlet-only web setup, left out of the WebFlux {@code reactive} profile.
+ */
+@Configuration
+@Profile("!reactive")
+public class WebMvcConfig implements WebMvcConfigurer {
+    @Bean
+    public LocaleResolver localeResolver() {
+        List<Locale> supportedLocales = new ArrayList<>();
+        supportedLocales.add(Locale.TAIWAN);
+        supportedLocales.add(Locale.ENGLISH);
+
+        AcceptHeaderLocaleResolver acceptHeaderLocaleResolver = new AcceptHeaderLocaleResolver();
+        acceptHeaderLocaleResolver.setDefaultLocale(Locale.TAIWAN);
+        acceptHeaderLocaleResolver.setSupportedLocales(supportedLocales);
+        return acceptHeaderLocaleResolver;
+    }
+}
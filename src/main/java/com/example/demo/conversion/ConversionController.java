@@ -0,0 +1,48 @@
+package com.example.demo.conversion;
+
+import com.example.demo.config.BaseLogger;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/currency")
+public class ConversionController extends BaseLogger {
+    @Autowired
+    private CurrencyConversionService currencyConversionService;
+
+    @Async
+    @GetMapping("/convert")
+    @Operation(description = "Convert an amount between two currencies using their BTC rates")
+    public CompletableFuture<ConversionDTO> convert(
+            @RequestParam String from,
+            @RequestParam String to,
+            @Parameter(description = "Amount in the 'from' currency, up to 4 decimals are used")
+            @RequestParam(defaultValue = "1") BigDecimal amount) {
+        try {
+            return CompletableFuture.completedFuture(currencyConversionService.convert(from, to, amount));
+        } catch (CurrencyConversionService.UnknownCurrencyException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (ArithmeticException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid amount");
+        }
+    }
+
+    @Async
+    @PostMapping("/convert/batch")
+    @Operation(description = "Convert a list of amounts, results are returned in input order")
+    public CompletableFuture<List<ConversionDTO>> convertBatch(@RequestBody List<ConversionRequestDTO> requests) {
+        if (requests.size() > currencyConversionService.getMaxBatch()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Too many items, max " + currencyConversionService.getMaxBatch());
+        }
+        return CompletableFuture.completedFuture(currencyConversionService.convertAll(requests));
+    }
+}
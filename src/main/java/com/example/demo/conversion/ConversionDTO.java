@@ -0,0 +1,20 @@
+package com.example.demo.conversion;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConversionDTO {
+    private String from;
+    private String to;
+    private BigDecimal amount;
+    // 1 單位 from 幣別可換得的 to 幣別，8 位小數
+    private BigDecimal rate;
+    private BigDecimal result;
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.example.demo.conversion;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class ConversionRequestDTO {
+    private String from;
+    private String to;
+    private BigDecimal amount = BigDecimal.ONE;
+}
@@ -0,0 +1,273 @@
+package com.example.demo.conversion;
+
+import com.example.demo.config.BaseLogger;
+import com.example.demo.currency.CurrencyRatesChangedEvent;
+import com.example.demo.currency.ScaledRate;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * N×N matrix of cross rates between every currency in {@link com.example.demo.currency.CurrencyRateCache},
+ * derived from their BTC rates.
+ * <p>
+ * Change events only record what changed; a single background thread applies everything recorded so far
+ * and publishes the result with one volatile write, so a burst of events costs one rebuild and the cache
+ * never waits for the matrix. Small change sets rebuild only the affected rows and columns into a copy of
+ * the matrix; a reload, or a change set touching more currencies than a row-by-row update pays off for,
+ * rebuilds the whole matrix in one pass instead. Readers take the current {@link Snapshot} and never lock;
+ * it may briefly lag the cache.
+ * Cross rates are kept with {@link #CROSS_SCALE} decimals; amounts are converted from the BTC rates
+ * directly so that a conversion is rounded only once.
+ */
+@Component
+public class CrossRateMatrix extends BaseLogger {
+    public static final int CROSS_SCALE = 8;
+    static final long CROSS_UNIT = 100_000_000L;
+
+    private final Executor rebuilder;
+    private final ExecutorService ownedRebuilder;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // 尚未套用到矩陣的異動，同一幣別只保留最新值；以 pendingChanges 本身同步
+    private final Map<String, Long> pendingChanges = new HashMap<>();
+    private boolean pendingReload;
+    private boolean rebuildScheduled;
+
+    public CrossRateMatrix() {
+        this(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cross-rate-matrix");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    CrossRateMatrix(Executor rebuilder) {
+        this.rebuilder = rebuilder;
+        this.ownedRebuilder = rebuilder instanceof ExecutorService executorService ? executorService : null;
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    @EventListener
+    public void onRatesChanged(CurrencyRatesChangedEvent event) {
+        synchronized (pendingChanges) {
+            if (event.reloaded()) {
+                pendingChanges.clear();
+                pendingReload = true;
+            }
+            pendingChanges.putAll(event.rates());
+            if (rebuildScheduled) {
+                return;
+            }
+            rebuildScheduled = true;
+        }
+        try {
+            rebuilder.execute(this::rebuild);
+        } catch (RejectedExecutionException e) {
+            logger.debug("cross rate matrix rebuilder is shut down, dropping changes");
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (ownedRebuilder != null) {
+            ownedRebuilder.shutdownNow();
+        }
+    }
+
+    private synchronized void rebuild() {
+        Map<String, Long> changes;
+        boolean reloaded;
+        synchronized (pendingChanges) {
+            changes = Map.copyOf(pendingChanges);
+            reloaded = pendingReload;
+            pendingChanges.clear();
+            pendingReload = false;
+            rebuildScheduled = false;
+        }
+
+        Snapshot current = reloaded ? Snapshot.EMPTY : snapshot;
+        // 每次增量更新都複製整個矩陣，異動數量多時直接整體重建較省
+        if (changes.size() > 1 && changes.size() >= current.size() / 4) {
+            current = current.rebuild(changes);
+        } else {
+            for (Map.Entry<String, Long> change : changes.entrySet()) {
+                long rate = change.getValue();
+                // 沒有匯率或匯率為 0 的幣別無法換算，視同移除
+                current = rate > 0 ? current.with(change.getKey(), rate) : current.without(change.getKey());
+            }
+        }
+        snapshot = current;
+        logger.debug("cross rate matrix now covers {} currencies", current.size());
+    }
+
+    /**
+     * Cross rate between two BTC rates scaled by {@link #CROSS_UNIT}, or {@link ScaledRate#NONE} if it does
+     * not fit a {@code long}.
+     */
+    static long cross(long fromBtcRate, long toBtcRate) {
+        try {
+            return ScaledRate.multiplyDivide(toBtcRate, CROSS_UNIT, fromBtcRate);
+        } catch (ArithmeticException e) {
+            return ScaledRate.NONE;
+        }
+    }
+
+    /**
+     * Immutable matrix. {@code cross[i * n + j]} is the price of one unit of currency {@code i} in currency
+     * {@code j}, scaled by {@link #CROSS_UNIT}, or {@link ScaledRate#NONE} if it does not fit a {@code long}.
+     */
+    public static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), new String[0], new long[0], new long[0]);
+
+        private final Map<String, Integer> indexes;
+        private final String[] codes;
+        private final long[] btcRates;
+        private final long[] cross;
+
+        private Snapshot(Map<String, Integer> indexes, String[] codes, long[] btcRates, long[] cross) {
+            this.indexes = indexes;
+            this.codes = codes;
+            this.btcRates = btcRates;
+            this.cross = cross;
+        }
+
+        public int size() {
+            return codes.length;
+        }
+
+        /**
+         * @return the index of {@code code}, or -1 if it cannot be converted
+         */
+        public int indexOf(String code) {
+            Integer index = indexes.get(code);
+            return index == null ? -1 : index;
+        }
+
+        /**
+         * Cross rate from {@code from} to {@code to} scaled by {@link #CROSS_UNIT}.
+         */
+        public long crossRate(int from, int to) {
+            return cross[from * codes.length + to];
+        }
+
+        /**
+         * Converts a {@link ScaledRate} amount, rounding half-up to 4 decimals.
+         *
+         * @throws ArithmeticException if the result does not fit
+         */
+        public long convert(int from, int to, long scaledAmount) {
+            if (from == to) {
+                return scaledAmount;
+            }
+            return ScaledRate.multiplyDivide(scaledAmount, btcRates[to], btcRates[from]);
+        }
+
+        Snapshot with(String code, long btcRate) {
+            Integer existing = indexes.get(code);
+            int n = existing == null ? codes.length + 1 : codes.length;
+            int target = existing == null ? codes.length : existing;
+
+            String[] newCodes = existing == null ? Arrays.copyOf(codes, n) : codes;
+            long[] newRates = Arrays.copyOf(btcRates, n);
+            if (existing == null) {
+                newCodes[target] = code;
+            }
+            newRates[target] = btcRate;
+
+            long[] newCross = new long[n * n];
+            for (int i = 0; i < codes.length; i++) {
+                if (i != target) {
+                    System.arraycopy(cross, i * codes.length, newCross, i * n, codes.length);
+                }
+            }
+            // 只重算異動幣別所在的列與欄
+            for (int j = 0; j < n; j++) {
+                newCross[target * n + j] = cross(newRates[target], newRates[j]);
+                newCross[j * n + target] = cross(newRates[j], newRates[target]);
+            }
+
+            Map<String, Integer> newIndexes = indexes;
+            if (existing == null) {
+                newIndexes = new HashMap<>(indexes);
+                newIndexes.put(code, target);
+                newIndexes = Map.copyOf(newIndexes);
+            }
+            return new Snapshot(newIndexes, newCodes, newRates, newCross);
+        }
+
+        Snapshot without(String code) {
+            Integer removed = indexes.get(code);
+            if (removed == null) {
+                return this;
+            }
+            int n = codes.length - 1;
+            String[] newCodes = new String[n];
+            long[] newRates = new long[n];
+            long[] newCross = new long[n * n];
+            Map<String, Integer> newIndexes = new HashMap<>();
+            for (int i = 0, ni = 0; i < codes.length; i++) {
+                if (i == removed) {
+                    continue;
+                }
+                newCodes[ni] = codes[i];
+                newRates[ni] = btcRates[i];
+                newIndexes.put(codes[i], ni);
+                for (int j = 0, nj = 0; j < codes.length; j++) {
+                    if (j != removed) {
+                        newCross[ni * n + nj++] = cross[i * codes.length + j];
+                    }
+                }
+                ni++;
+            }
+            return new Snapshot(Map.copyOf(newIndexes), newCodes, newRates, newCross);
+        }
+
+        /**
+         * Applies every change at once, recomputing the full matrix.
+         */
+        Snapshot rebuild(Map<String, Long> changes) {
+            Map<String, Long> rates = new LinkedHashMap<>();
+            for (int i = 0; i < codes.length; i++) {
+                rates.put(codes[i], btcRates[i]);
+            }
+            changes.forEach((code, rate) -> {
+                if (rate > 0) {
+                    rates.put(code, rate);
+                } else {
+                    rates.remove(code);
+                }
+            });
+
+            int n = rates.size();
+            String[] newCodes = new String[n];
+            long[] newRates = new long[n];
+            Map<String, Integer> newIndexes = new HashMap<>();
+            int index = 0;
+            for (Map.Entry<String, Long> entry : rates.entrySet()) {
+                newCodes[index] = entry.getKey();
+                newRates[index] = entry.getValue();
+                newIndexes.put(entry.getKey(), index++);
+            }
+            long[] newCross = new long[n * n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    newCross[i * n + j] = cross(newRates[i], newRates[j]);
+                }
+            }
+            return new Snapshot(Map.copyOf(newIndexes), newCodes, newRates, newCross);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.conversion;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.conversion")
+public class CurrencyConversionProperties {
+    // 批次換算單次請求允許的最大筆數
+    private int maxBatch = 10_000;
+}
@@ -0,0 +1,97 @@
+package com.example.demo.conversion;
+
+import com.example.demo.config.BaseLogger;
+import com.example.demo.currency.CurrencyRateCache;
+import com.example.demo.currency.ScaledRate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts amounts between currencies using the current {@link CrossRateMatrix} snapshot.
+ * A code missing from the matrix is converted from its BTC rate in {@link CurrencyRateCache} instead, which
+ * loads it from the database if needed; the matrix picks it up in the background.
+ */
+@Service
+public class CurrencyConversionService extends BaseLogger {
+    private final CrossRateMatrix crossRateMatrix;
+    private final CurrencyRateCache currencyRateCache;
+    private final CurrencyConversionProperties properties;
+
+    @Autowired
+    public CurrencyConversionService(CrossRateMatrix crossRateMatrix, CurrencyRateCache currencyRateCache,
+                                     CurrencyConversionProperties properties) {
+        this.crossRateMatrix = crossRateMatrix;
+        this.currencyRateCache = currencyRateCache;
+        this.properties = properties;
+    }
+
+    public int getMaxBatch() {
+        return properties.getMaxBatch();
+    }
+
+    /**
+     * @throws UnknownCurrencyException if either code has no usable rate
+     * @throws ArithmeticException      if the amount or the result is out of range
+     */
+    public ConversionDTO convert(String from, String to, BigDecimal amount) {
+        long scaledAmount = ScaledRate.of(amount);
+        CrossRateMatrix.Snapshot snapshot = crossRateMatrix.snapshot();
+        int fromIndex = snapshot.indexOf(from);
+        int toIndex = snapshot.indexOf(to);
+        if (fromIndex < 0 || toIndex < 0) {
+            return convertFromCache(from, to, amount, scaledAmount);
+        }
+
+        long crossRate = snapshot.crossRate(fromIndex, toIndex);
+        long result = snapshot.convert(fromIndex, toIndex, scaledAmount);
+        return toDTO(from, to, amount, crossRate, result);
+    }
+
+    /**
+     * Converts every request; a failing item carries an error instead of a result and never fails the batch.
+     */
+    public List<ConversionDTO> convertAll(List<ConversionRequestDTO> requests) {
+        List<ConversionDTO> results = new ArrayList<>(requests.size());
+        for (ConversionRequestDTO request : requests) {
+            if (request.getFrom() == null || request.getTo() == null || request.getAmount() == null) {
+                results.add(new ConversionDTO(request.getFrom(), request.getTo(), request.getAmount(), null, null, "Missing from, to or amount"));
+                continue;
+            }
+            try {
+                results.add(convert(request.getFrom(), request.getTo(), request.getAmount()));
+            } catch (UnknownCurrencyException e) {
+                results.add(new ConversionDTO(request.getFrom(), request.getTo(), request.getAmount(), null, null, e.getMessage()));
+            } catch (ArithmeticException e) {
+                results.add(new ConversionDTO(request.getFrom(), request.getTo(), request.getAmount(), null, null, "Invalid amount"));
+            }
+        }
+        return results;
+    }
+
+    private ConversionDTO convertFromCache(String from, String to, BigDecimal amount, long scaledAmount) {
+        // 與矩陣相同的算法，剛載入的幣別不必等待矩陣重建
+        long fromRate = currencyRateCache.findScaledRate(from);
+        long toRate = currencyRateCache.findScaledRate(to);
+        if (fromRate <= 0 || toRate <= 0) {
+            throw new UnknownCurrencyException(fromRate <= 0 ? from : to);
+        }
+        long result = from.equals(to) ? scaledAmount : ScaledRate.multiplyDivide(scaledAmount, toRate, fromRate);
+        return toDTO(from, to, amount, CrossRateMatrix.cross(fromRate, toRate), result);
+    }
+
+    private static ConversionDTO toDTO(String from, String to, BigDecimal amount, long crossRate, long result) {
+        return new ConversionDTO(from, to, amount,
+                crossRate == ScaledRate.NONE ? null : BigDecimal.valueOf(crossRate, CrossRateMatrix.CROSS_SCALE),
+                ScaledRate.toBigDecimal(result), null);
+    }
+
+    public static class UnknownCurrencyException extends RuntimeException {
+        public UnknownCurrencyException(String code) {
+            super("Currency not found: " + code);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.currency;
+
+import com.example.demo.config.BaseLogger;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Bulk create, update and delete of currencies. The body is read element by element on the request thread
+ * and rejected with 413 as soon as it holds more than {@code currency.batch.max-items} items, so an oversized
+ * body is never deserialized as a whole; only the database work is handed to {@code taskExecutor}. Reading
+ * the body as a stream needs Spring MVC, so these endpoints are left out of the WebFlux {@code reactive} profile.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/currency")
+public class CurrencyBatchController extends BaseLogger {
+    private final CurrencyBatchService currencyBatchService;
+    private final ObjectMapper objectMapper;
+    private final Executor taskExecutor;
+
+    @Autowired
+    public CurrencyBatchController(CurrencyBatchService currencyBatchService, ObjectMapper objectMapper,
+                                   @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.currencyBatchService = currencyBatchService;
+        this.objectMapper = objectMapper;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(description = "Create Currency Information in bulk, one result per item in input order")
+    public CompletableFuture<List<CurrencyBatchResult>> createBatch(InputStream body) throws IOException {
+        return batch(read(body, false), CurrencyBatchService.Operation.CREATE);
+    }
+
+    @PutMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(description = "Update Currency Information in bulk, one result per item in input order")
+    public CompletableFuture<List<CurrencyBatchResult>> updateBatch(InputStream body) throws IOException {
+        return batch(read(body, false), CurrencyBatchService.Operation.UPDATE);
+    }
+
+    @DeleteMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(description = "Delete Currency Information in bulk by a JSON array of codes, one result per code in input order")
+    public CompletableFuture<List<CurrencyBatchResult>> deleteBatch(InputStream body) throws IOException {
+        return batch(read(body, true), CurrencyBatchService.Operation.DELETE);
+    }
+
+    private CompletableFuture<List<CurrencyBatchResult>> batch(List<CurrencyBatchItemDTO> items, CurrencyBatchService.Operation operation) {
+        return CompletableFuture.supplyAsync(() -> currencyBatchService.apply(items, operation), taskExecutor);
+    }
+
+    private List<CurrencyBatchItemDTO> read(InputStream body, boolean codesOnly) throws IOException {
+        int maxItems = currencyBatchService.getMaxItems();
+        List<CurrencyBatchItemDTO> items = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a JSON array");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unexpected end of input, the array is not closed");
+                }
+                // 超過上限即停止讀取，其餘內容不再解析
+                if (items.size() >= maxItems) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Too many items, max " + maxItems);
+                }
+                if (codesOnly) {
+                    CurrencyBatchItemDTO item = new CurrencyBatchItemDTO();
+                    item.setCode(objectMapper.readValue(parser, String.class));
+                    items.add(item);
+                } else {
+                    items.add(objectMapper.readValue(parser, CurrencyBatchItemDTO.class));
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        return items;
+    }
+}
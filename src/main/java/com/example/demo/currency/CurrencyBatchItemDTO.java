@@ -0,0 +1,14 @@
+package com.example.demo.currency;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class CurrencyBatchItemDTO {
+    private String code;
+    private String currencyNameCN;
+    private BigDecimal rateFloat;
+}
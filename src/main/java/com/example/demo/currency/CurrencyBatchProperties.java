@@ -0,0 +1,15 @@
+package com.example.demo.currency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.batch")
+public class CurrencyBatchProperties {
+    // 單次請求允許的最大筆數
+    private int maxItems = 10_000;
+    // 每個 IN 查詢與 flush 的筆數，限制持久化內容的記憶體用量
+    private int chunkSize = 500;
+}
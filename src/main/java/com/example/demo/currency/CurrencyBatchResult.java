@@ -0,0 +1,19 @@
+package com.example.demo.currency;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CurrencyBatchResult {
+    private int index;
+    private String code;
+    private Status status;
+    private String error;
+
+    public enum Status {
+        CREATED, UPDATED, DELETED, NOT_FOUND, CONFLICT, INVALID
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.demo.currency;
+
+import com.example.demo.config.BaseLogger;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies {@code POST/PUT/DELETE /api/currency/batch} in one transaction.
+ * <p>
+ * Items are processed in chunks of {@code currency.batch.chunk-size}: one {@code IN} query resolves the
+ * codes of a chunk, the changes go out as a JDBC batch, and the persistence context is flushed and
+ * cleared so the managed entities stay bounded by the chunk. The items and their results are still held
+ * for the whole request; {@link CurrencyBatchController} bounds them by {@code currency.batch.max-items} while
+ * it reads the body. Every item gets its own result;
+ * invalid, duplicate or conflicting items are reported and skipped, while a database error rolls back
+ * the whole batch.
+ * <p>
+ * Pending {@link CurrencyWriteBehindBuffer} writes of the requested codes are flushed before the batch
+ * starts; after it commits, writes buffered meanwhile for codes the batch changed are discarded so the
+ * buffer, the cache and the database agree.
+ */
+@Service
+public class CurrencyBatchService extends BaseLogger {
+    public enum Operation { CREATE, UPDATE, DELETE }
+
+    private final CurrencyEntityRepository currencyEntityRepository;
+    private final CurrencyRateCache currencyRateCache;
+    private final CurrencyWriteBehindBuffer currencyWriteBehindBuffer;
+    private final CurrencyMapper currencyMapper;
+    private final CurrencyBatchProperties properties;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public CurrencyBatchService(CurrencyEntityRepository currencyEntityRepository, CurrencyRateCache currencyRateCache,
+                                CurrencyWriteBehindBuffer currencyWriteBehindBuffer, CurrencyMapper currencyMapper,
+                                CurrencyBatchProperties properties, EntityManager entityManager,
+                                PlatformTransactionManager transactionManager) {
+        this.currencyEntityRepository = currencyEntityRepository;
+        this.currencyRateCache = currencyRateCache;
+        this.currencyWriteBehindBuffer = currencyWriteBehindBuffer;
+        this.currencyMapper = currencyMapper;
+        this.properties = properties;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public int getMaxItems() {
+        return properties.getMaxItems();
+    }
+
+    public List<CurrencyBatchResult> apply(List<CurrencyBatchItemDTO> items, Operation operation) {
+        CurrencyBatchResult[] results = new CurrencyBatchResult[items.size()];
+        List<CurrencyEntity> saved = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        Timestamp updated = new Timestamp(System.currentTimeMillis());
+        int chunkSize = Math.max(1, properties.getChunkSize());
+
+        // 先把這批幣別尚未寫回的單筆修改寫入資料庫，批次才會以最新狀態判斷存在與否
+        Set<String> codes = new HashSet<>();
+        for (CurrencyBatchItemDTO item : items) {
+            if (item != null && item.getCode() != null) {
+                codes.add(item.getCode());
+            }
+        }
+        currencyWriteBehindBuffer.flush(codes);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> seen = new HashSet<>();
+            for (int from = 0; from < items.size(); from += chunkSize) {
+                int to = Math.min(items.size(), from + chunkSize);
+                applyChunk(items, from, to, operation, updated, seen, results, saved, deleted);
+                // 每個區塊寫出後清空持久化內容，避免大量實體累積在記憶體中
+                entityManager.flush();
+                entityManager.clear();
+            }
+        });
+
+        // 交易提交後才更新快取，並丟棄批次期間又寫入緩衝的修改，以批次結果為準
+        saved.forEach(entity -> currencyWriteBehindBuffer.discard(entity.getCode()));
+        deleted.forEach(currencyWriteBehindBuffer::discard);
+        currencyRateCache.putAll(saved);
+        currencyRateCache.evictAll(deleted);
+        return Arrays.asList(results);
+    }
+
+    private void applyChunk(List<CurrencyBatchItemDTO> items, int from, int to, Operation operation, Timestamp updated,
+                            Set<String> seen, CurrencyBatchResult[] results, List<CurrencyEntity> saved, List<String> deleted) {
+        Map<String, Integer> indexByCode = new LinkedHashMap<>();
+        for (int i = from; i < to; i++) {
+            CurrencyBatchItemDTO item = items.get(i);
+            String error = validate(item, operation);
+            if (error == null && !seen.add(item.getCode())) {
+                error = "Duplicate code in batch";
+            }
+            if (error != null) {
+                results[i] = result(i, item, CurrencyBatchResult.Status.INVALID, error);
+            } else {
+                indexByCode.put(item.getCode(), i);
+            }
+        }
+        if (indexByCode.isEmpty()) {
+            return;
+        }
+
+        Map<String, CurrencyEntity> existingEntities = currencyEntityRepository.findByCodeIn(indexByCode.keySet()).stream()
+                .collect(Collectors.toMap(CurrencyEntity::getCode, Function.identity()));
+        List<CurrencyEntity> toSave = new ArrayList<>(indexByCode.size());
+        List<CurrencyEntity> toDelete = new ArrayList<>();
+        indexByCode.forEach((code, i) -> {
+            CurrencyBatchItemDTO item = items.get(i);
+            CurrencyEntity existing = existingEntities.get(code);
+            switch (operation) {
+                case CREATE -> {
+                    if (existing != null) {
+                        results[i] = result(i, item, CurrencyBatchResult.Status.CONFLICT, "Currency exist");
+                    } else {
+                        toSave.add(currencyMapper.toEntity(code, item.getCurrencyNameCN(), item.getRateFloat(), updated));
+                        results[i] = result(i, item, CurrencyBatchResult.Status.CREATED, null);
+                    }
+                }
+                case UPDATE -> {
+                    if (existing == null) {
+                        results[i] = result(i, item, CurrencyBatchResult.Status.NOT_FOUND, "Currency not found");
+                    } else {
+                        currencyMapper.updateEntity(existing, item.getRateFloat(), item.getCurrencyNameCN(), updated);
+                        toSave.add(existing);
+                        results[i] = result(i, item, CurrencyBatchResult.Status.UPDATED, null);
+                    }
+                }
+                case DELETE -> {
+                    if (existing == null) {
+                        results[i] = result(i, item, CurrencyBatchResult.Status.NOT_FOUND, "Currency not found");
+                    } else {
+                        toDelete.add(existing);
+                        results[i] = result(i, item, CurrencyBatchResult.Status.DELETED, null);
+                    }
+                }
+            }
+        });
+
+        if (!toSave.isEmpty()) {
+            saved.addAll(currencyEntityRepository.saveAll(toSave));
+        }
+        if (!toDelete.isEmpty()) {
+            currencyEntityRepository.deleteAllInBatch(toDelete);
+            toDelete.forEach(entity -> deleted.add(entity.getCode()));
+        }
+    }
+
+    private static String validate(CurrencyBatchItemDTO item, Operation operation) {
+        if (item == null || item.getCode() == null || item.getCode().isBlank()) {
+            return "Missing code";
+        }
+        if (operation == Operation.CREATE && (item.getRateFloat() == null || item.getCurrencyNameCN() == null)) {
+            return "rateFloat and currencyNameCN are required";
+        }
+        if (item.getRateFloat() != null) {
+            try {
+                ScaledRate.of(item.getRateFloat());
+            } catch (ArithmeticException e) {
+                return "Rate out of range";
+            }
+        }
+        return null;
+    }
+
+    private static CurrencyBatchResult result(int index, CurrencyBatchItemDTO item, CurrencyBatchResult.Status status, String error) {
+        return new CurrencyBatchResult(index, item == null ? null : item.getCode(), status, error);
+    }
+}
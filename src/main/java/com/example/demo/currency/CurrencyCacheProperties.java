@@ -0,0 +1,21 @@
+package com.example.demo.currency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.cache")
+public class CurrencyCacheProperties {
+    // 快取最多保留的幣別數量，超過時淘汰最早到期的項目
+    private int maxSize = 1000;
+    // 每筆快取資料的存活時間
+    private Duration ttl = Duration.ofMinutes(10);
+    // 加密代碼對應幣別的快取上限 (不含由幣別表預先計算的項目)
+    private int tokenMaxSize = 1024;
+    // 無法解密的代碼快取上限
+    private int invalidTokenMaxSize = 1024;
+}
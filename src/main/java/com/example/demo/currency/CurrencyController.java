@@ -1,15 +1,15 @@
 package com.example.demo.currency;
 
 import com.example.demo.config.BaseLogger;
-import com.example.demo.util.EncryptionUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.annotation.Nullable;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.web.bind.annotation.*;
@@ -20,7 +20,6 @@ import java.sql.Timestamp;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/currency")
@@ -28,7 +27,17 @@ public class CurrencyController extends BaseLogger {
     @Autowired
     private CurrencyEntityRepository currencyEntityRepository;
     @Autowired
-    private ModelMapper modelMapper;
+    private CurrencyRateCache currencyRateCache;
+    @Autowired
+    private CurrencyListSnapshots currencyListSnapshots;
+    @Autowired
+    private EncryptedCodeResolver encryptedCodeResolver;
+    @Autowired
+    private CurrencyMapper currencyMapper;
+    @Autowired
+    private CurrencyWriteBehindBuffer currencyWriteBehindBuffer;
+    @Autowired
+    private CurrencyPageService currencyPageService;
     @Autowired
     private MessageSource messageSource;
 
@@ -41,40 +50,87 @@ public class CurrencyController extends BaseLogger {
             @RequestParam(required = true) String code,
             @RequestParam(required = true) BigDecimal rateFloat,
             @RequestParam(required = true) String currencyNameCN) {
+        if (currencyWriteBehindBuffer.isEnabled()) {
+            CurrencyEntity pendingEntity;
+            try {
+                pendingEntity = currencyWriteBehindBuffer.create(code, currencyNameCN, rateFloat, new Timestamp(System.currentTimeMillis()));
+            } catch (ArithmeticException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Rate out of range");
+            }
+            if (pendingEntity == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Currency exist");
+            }
+            return CompletableFuture.completedFuture(supportI18n(acceptLanguage, pendingEntity));
+        }
+
         CurrencyEntity currencyEntity = currencyEntityRepository.findByCode(code);
         if (currencyEntity != null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Currency exist");
         }
 
-        CurrencyEntity entity = new CurrencyEntity();
-        entity.setUpdated(new Timestamp(System.currentTimeMillis()));
-        entity.setCode(code);
-        entity.setCurrencyNameCN(currencyNameCN);
-        entity.setRateFloat(rateFloat);
+        CurrencyEntity entity;
+        try {
+            entity = currencyMapper.toEntity(code, currencyNameCN, rateFloat, new Timestamp(System.currentTimeMillis()));
+        } catch (ArithmeticException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Rate out of range");
+        }
 
         CurrencyEntity savedEntity = currencyEntityRepository.save(entity);
+        currencyRateCache.put(savedEntity);
         return CompletableFuture.completedFuture(supportI18n(acceptLanguage, savedEntity));
     }
 
     @Async
-    @GetMapping
-    @Operation(description = "Get All Currency Information")
-    public CompletableFuture<List<CurrencyDTO>> getAllCurrency(
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(description = "Get All Currency Information. With after, limit or fields, returns one keyset page on code "
+            + "and the cursor of the next page in the " + CurrencyPageService.NEXT_CURSOR_HEADER + " header")
+    public CompletableFuture<ResponseEntity<byte[]>> getAllCurrency(
             @Parameter(description = "Language for the response", required = false)
             @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage,
-            @RequestParam(defaultValue = "ASC") String sortDirection) {
-
-        Sort sort = Sort.by("code");
-        sort = sortDirection.equalsIgnoreCase("DESC") ? sort.descending() : sort.ascending();
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @Parameter(description = "Return currencies after this code, in sort direction")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Comma separated fields to return: code, currencyNameCN, rateFloat, updated")
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Locale locale = resolveLocale(acceptLanguage);
+
+        if (after != null || limit != null || fields != null) {
+            CurrencyPage page;
+            try {
+                page = currencyPageService.page(after, limit, direction, fields, languageMessage(locale));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .varyBy(HttpHeaders.ACCEPT_LANGUAGE);
+            if (page.nextCursor() != null) {
+                response.header(CurrencyPageService.NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return CompletableFuture.completedFuture(response.body(page.json()));
+        }
 
+        CurrencyListSnapshot snapshot = currencyListSnapshots.peek(locale, direction);
+        if (snapshot == null) {
+            snapshot = currencyListSnapshots.get(locale, direction, languageMessage(locale));
+        }
 
-        return CompletableFuture.completedFuture(
-                currencyEntityRepository.findAll(sort).stream()
-                        .map(entity -> {
-                            return supportI18n(acceptLanguage, entity);
-                        })
-                        .collect(Collectors.toList())
-        );
+        if (snapshot.matches(ifNoneMatch)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .varyBy(HttpHeaders.ACCEPT_LANGUAGE)
+                    .build());
+        }
+        return CompletableFuture.completedFuture(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.etag())
+                .varyBy(HttpHeaders.ACCEPT_LANGUAGE)
+                .body(snapshot.json()));
     }
 
     @Async
@@ -84,14 +140,12 @@ public class CurrencyController extends BaseLogger {
             @Parameter(description = "Language for the response", required = false)
             @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage,
             @PathVariable String encryptCode) {
-        String decryptedCode;
-        try {
-            decryptedCode = EncryptionUtil.decrypt(encryptCode);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        String decryptedCode = encryptedCodeResolver.resolve(encryptCode);
 
-        CurrencyEntity currencyEntity = currencyEntityRepository.findByCode(decryptedCode);
+        CurrencyEntity currencyEntity = currencyWriteBehindBuffer.find(decryptedCode);
+        if (currencyEntity == null) {
+            currencyEntity = currencyRateCache.findByCode(decryptedCode);
+        }
         if (currencyEntity == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Currency not found");
         }
@@ -107,17 +161,29 @@ public class CurrencyController extends BaseLogger {
             @PathVariable String code,
             @RequestParam(required = false) BigDecimal rateFloat,
             @RequestParam(required = false) String currencyNameCN) {
+        if (currencyWriteBehindBuffer.isEnabled()) {
+            CurrencyEntity pendingEntity;
+            try {
+                pendingEntity = currencyWriteBehindBuffer.update(code, rateFloat, currencyNameCN, new Timestamp(System.currentTimeMillis()));
+            } catch (ArithmeticException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Rate out of range");
+            }
+            if (pendingEntity == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Currency not found");
+            }
+            return CompletableFuture.completedFuture(supportI18n(acceptLanguage, pendingEntity));
+        }
+
         CurrencyEntity existingEntity = currencyEntityRepository.findByCode(code);
         if (existingEntity != null) {
-            existingEntity.setUpdated(new Timestamp(System.currentTimeMillis()));
-            if (rateFloat != null) {
-                existingEntity.setRateFloat(rateFloat);
-            }
-            if (currencyNameCN != null) {
-                existingEntity.setCurrencyNameCN(currencyNameCN);
+            try {
+                currencyMapper.updateEntity(existingEntity, rateFloat, currencyNameCN, new Timestamp(System.currentTimeMillis()));
+            } catch (ArithmeticException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Rate out of range");
             }
 
             CurrencyEntity updatedEntity = currencyEntityRepository.save(existingEntity);
+            currencyRateCache.put(updatedEntity);
             return CompletableFuture.completedFuture(supportI18n(acceptLanguage, updatedEntity));
         } else {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Currency not found");
@@ -128,9 +194,14 @@ public class CurrencyController extends BaseLogger {
     @DeleteMapping("/{code}")
     @Operation(description = "Delete specific Currency Information")
     public CompletableFuture<ResponseEntity<Void>> deleteCurrency(@PathVariable String code) {
+        // 先丟棄尚未寫回的修改，避免刪除後又被寫回
+        boolean discarded = currencyWriteBehindBuffer.discard(code);
         CurrencyEntity existingEntity = currencyEntityRepository.findByCode(code);
-        if (existingEntity != null) {
-            currencyEntityRepository.delete(existingEntity);
+        if (existingEntity != null || discarded) {
+            if (existingEntity != null) {
+                currencyEntityRepository.delete(existingEntity);
+            }
+            currencyRateCache.evict(code);
             return CompletableFuture.completedFuture(ResponseEntity.noContent().build());
         } else {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Currency not found");
@@ -138,17 +209,21 @@ public class CurrencyController extends BaseLogger {
     }
 
     private CurrencyDTO supportI18n(String acceptLanguage, CurrencyEntity entity) {
-        Locale locale;
-        if (acceptLanguage == null || Locale.forLanguageTag(acceptLanguage).getLanguage().isEmpty()) {
-            locale = Locale.TAIWAN;
-        } else {
-            locale = Locale.forLanguageTag(acceptLanguage);
-        }
+        return toDTO(entity, languageMessage(resolveLocale(acceptLanguage)));
+    }
 
-        CurrencyDTO dto = modelMapper.map(entity, CurrencyDTO.class);
-        String language = messageSource.getMessage("language", new Object[]{locale.getDisplayLanguage(locale)}, locale);
+    private CurrencyDTO toDTO(CurrencyEntity entity, String language) {
+        CurrencyDTO dto = currencyMapper.toDTO(entity);
         dto.setLanguage(language);
         return dto;
     }
-}
 
+    private Locale resolveLocale(String acceptLanguage) {
+        // 只回傳支援的語系，避免以任意標頭值產生新的快照
+        return SupportedLocales.resolve(acceptLanguage);
+    }
+
+    private String languageMessage(Locale locale) {
+        return messageSource.getMessage("language", new Object[]{locale.getDisplayLanguage(locale)}, locale);
+    }
+}
@@ -6,7 +6,6 @@ import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
 
 @Getter
 @Setter
@@ -20,8 +19,6 @@ public class CurrencyDTO {
     private String language;
 
     public String getUpdated() {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
-        return sdf.format(updated);
+        return updated == null ? null : UpdatedTimestampFormatter.format(updated);
     }
 }
-
@@ -2,35 +2,67 @@ package com.example.demo.currency;
 
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Timestamp;
 
 @Entity
 @Table(name = "bitcoin_exchange_rate")
 @Getter
 @Setter
-public class CurrencyEntity {
+public class CurrencyEntity implements CurrencyProjections.Full {
     static final String CREATE_TABLE_SQL =
             "CREATE TABLE IF NOT EXISTS bitcoin_exchange_rate ("
-            + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "id BIGINT PRIMARY KEY, "
             + "updated VARCHAR(255), "
             + "code VARCHAR(255) UNIQUE, "
             + "currency_name_cn VARCHAR(255), "
             + "rate_float DECIMAL(19, 4)"
             + ");";
 
+    // 使用 sequence 並預先配置 id，讓 Hibernate 可以批次 insert (IDENTITY 會停用 insert batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bitcoin_exchange_rate_seq")
+    @SequenceGenerator(name = "bitcoin_exchange_rate_seq", sequenceName = "bitcoin_exchange_rate_seq", allocationSize = 50)
     private Long id;
     @Column(name = "updated")
     private Timestamp updated;
     @Column(name = "code", unique = true)
     private String code;
     @Column(name = "currency_name_cn")
-    private String CurrencyNameCN;
+    private String currencyNameCN;
     @Column(name = "rate_float")
     private BigDecimal rateFloat;
+    // rateFloat 的定點數版本，讀取路徑上比較或計算時不需配置 BigDecimal；超出 long 範圍的資料庫值為 NONE
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private long scaledRate = ScaledRate.NONE;
+
+    /**
+     * Sets the rate rounded half-up to the 4 decimals of the column, so the entity holds what will be stored.
+     *
+     * @throws ArithmeticException if the rate does not fit a {@link ScaledRate}
+     */
+    public void setRateFloat(BigDecimal rateFloat) {
+        this.scaledRate = ScaledRate.ofNullable(rateFloat);
+        this.rateFloat = rateFloat == null ? null : rateFloat.setScale(ScaledRate.SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Sets the rate from its scaled form, keeping {@link #getRateFloat()} in sync.
+     */
+    public void setScaledRate(long scaledRate) {
+        this.rateFloat = ScaledRate.toBigDecimal(scaledRate);
+        this.scaledRate = scaledRate;
+    }
+
+    @PostLoad
+    void syncScaledRate() {
+        // Hibernate 以欄位存取直接寫入 rateFloat，載入後補算定點數；DECIMAL(19, 4) 的合法值可能超出 long，不可拋例外
+        this.scaledRate = ScaledRate.ofNullableOrNone(rateFloat);
+    }
 }
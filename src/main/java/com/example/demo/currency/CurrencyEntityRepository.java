@@ -1,9 +1,22 @@
 package com.example.demo.currency;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CurrencyEntityRepository extends JpaRepository<CurrencyEntity, Long> {
     CurrencyEntity findByCode(String code);
+
+    List<CurrencyEntity> findByCodeIn(Collection<String> codes);
+
+    <T> List<T> findAllBy(Sort sort, Limit limit, Class<T> type);
+
+    <T> List<T> findByCodeGreaterThan(String code, Sort sort, Limit limit, Class<T> type);
+
+    <T> List<T> findByCodeLessThan(String code, Sort sort, Limit limit, Class<T> type);
 }
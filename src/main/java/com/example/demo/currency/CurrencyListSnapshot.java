@@ -0,0 +1,30 @@
+package com.example.demo.currency;
+
+/**
+ * Immutable, pre-serialized body of {@code GET /api/currency} for one locale and sort direction.
+ *
+ * @param version {@link CurrencyRateCache#version()} the snapshot was built from
+ * @param json    UTF-8 encoded JSON array of {@link CurrencyDTO}; never modified after construction
+ * @param etag    quoted strong entity tag derived from {@code json}
+ */
+public record CurrencyListSnapshot(long version, byte[] json, String etag) {
+
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.currency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Holds one {@link CurrencyListSnapshot} per (locale, sort direction) pair. Only the
+ * {@link SupportedLocales} are accepted, so the number of snapshots is fixed. The list is built from
+ * {@link CurrencyRateCache} with the pending {@link CurrencyWriteBehindBuffer} writes applied, and is shared
+ * by the servlet and the reactive list endpoints.
+ * <p>
+ * A snapshot is rebuilt only after {@link CurrencyRateCache#version()} moves, and at most one
+ * thread builds a given key at a time; every other request is served the existing bytes.
+ */
+@Component
+public class CurrencyListSnapshots {
+    private final CurrencyRateCache currencyRateCache;
+    private final CurrencyWriteBehindBuffer currencyWriteBehindBuffer;
+    private final CurrencyMapper currencyMapper;
+    private final ObjectMapper objectMapper;
+    private final Map<SnapshotKey, CurrencyListSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CurrencyListSnapshots(CurrencyRateCache currencyRateCache, CurrencyWriteBehindBuffer currencyWriteBehindBuffer,
+                                 CurrencyMapper currencyMapper, ObjectMapper objectMapper) {
+        this.currencyRateCache = currencyRateCache;
+        this.currencyWriteBehindBuffer = currencyWriteBehindBuffer;
+        this.currencyMapper = currencyMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The snapshot of all currencies; rebuilding it may read the database through {@link CurrencyRateCache}.
+     *
+     * @param language value of {@link CurrencyDTO#getLanguage()} for {@code locale}
+     */
+    public CurrencyListSnapshot get(Locale locale, Sort.Direction direction, String language) {
+        return get(locale, direction, () ->
+                // 尚未寫回資料庫的修改也要出現在清單中
+                currencyWriteBehindBuffer.overlay(currencyRateCache.findAll(Sort.by(direction, "code")), direction).stream()
+                        .map(entity -> {
+                            CurrencyDTO dto = currencyMapper.toDTO(entity);
+                            dto.setLanguage(language);
+                            return dto;
+                        })
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * The current snapshot if it is still valid, without building anything.
+     */
+    public CurrencyListSnapshot peek(Locale locale, Sort.Direction direction) {
+        CurrencyListSnapshot snapshot = snapshots.get(new SnapshotKey(locale, direction));
+        return snapshot != null && snapshot.version() == currencyRateCache.version() ? snapshot : null;
+    }
+
+    CurrencyListSnapshot get(Locale locale, Sort.Direction direction, Supplier<List<CurrencyDTO>> currencies) {
+        if (!SupportedLocales.ALL.contains(locale)) {
+            throw new IllegalArgumentException("Unsupported locale " + locale);
+        }
+        SnapshotKey key = new SnapshotKey(locale, direction);
+        // 先記下版本，建構期間若資料又變動，下次請求會再重建
+        long version = currencyRateCache.version();
+        CurrencyListSnapshot snapshot = snapshots.get(key);
+        if (snapshot != null && snapshot.version() == version) {
+            return snapshot;
+        }
+        return snapshots.compute(key, (k, existing) ->
+                existing != null && existing.version() == version ? existing : build(version, currencies.get()));
+    }
+
+    private CurrencyListSnapshot build(long version, List<CurrencyDTO> currencies) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(currencies);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize currency list", e);
+        }
+        String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+        return new CurrencyListSnapshot(version, json, etag);
+    }
+
+    private record SnapshotKey(Locale locale, Sort.Direction direction) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.currency;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Field-by-field mapping between {@link CurrencyEntity} and {@link CurrencyDTO}.
+ * <p>
+ * Produces the same values ModelMapper did for these two types, without reflection
+ * and without allocating anything besides the target object.
+ */
+@Component
+public class CurrencyMapper {
+
+    public CurrencyDTO toDTO(CurrencyEntity entity) {
+        CurrencyDTO dto = new CurrencyDTO();
+        dto.setCode(entity.getCode());
+        dto.setCurrencyNameCN(entity.getCurrencyNameCN());
+        dto.setRateFloat(entity.getRateFloat());
+        dto.setUpdated(entity.getUpdated());
+        return dto;
+    }
+
+    public CurrencyDTO toDTO(CurrencyProjections.Full view) {
+        CurrencyDTO dto = new CurrencyDTO();
+        dto.setCode(view.getCode());
+        dto.setCurrencyNameCN(view.getCurrencyNameCN());
+        dto.setRateFloat(view.getRateFloat());
+        dto.setUpdated(view.getUpdated());
+        return dto;
+    }
+
+    public CurrencyEntity toEntity(String code, String currencyNameCN, BigDecimal rateFloat, Timestamp updated) {
+        CurrencyEntity entity = new CurrencyEntity();
+        entity.setUpdated(updated);
+        entity.setCode(code);
+        entity.setCurrencyNameCN(currencyNameCN);
+        entity.setRateFloat(rateFloat);
+        return entity;
+    }
+
+    /**
+     * Applies a partial update; {@code null} arguments leave the current value untouched.
+     */
+    public void updateEntity(CurrencyEntity entity, BigDecimal rateFloat, String currencyNameCN, Timestamp updated) {
+        entity.setUpdated(updated);
+        if (rateFloat != null) {
+            entity.setRateFloat(rateFloat);
+        }
+        if (currencyNameCN != null) {
+            entity.setCurrencyNameCN(currencyNameCN);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.currency;
+
+/**
+ * One keyset page of {@code GET /api/currency}.
+ *
+ * @param json       UTF-8 encoded JSON array of the page items
+ * @param nextCursor code to pass as {@code after} for the next page, or {@code null} on the last page
+ */
+public record CurrencyPage(byte[] json, String nextCursor) {
+}
@@ -0,0 +1,15 @@
+package com.example.demo.currency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.page")
+public class CurrencyPageProperties {
+    // 有分頁參數但未指定 limit 時的筆數
+    private int defaultLimit = 100;
+    // limit 上限，超過時以上限為準
+    private int maxLimit = 1000;
+}
@@ -0,0 +1,170 @@
+package com.example.demo.currency;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keyset pagination of the currency table on {@code code}.
+ * <p>
+ * A page is {@code code > after} (or {@code <} when descending), ordered by code and limited in the
+ * query, so every page costs the same no matter how deep the client has scrolled. When {@code fields}
+ * is given the query goes through the narrowest {@link CurrencyProjections} interface covering them and
+ * only those fields are written; {@code code} is always included since it is the cursor.
+ * <p>
+ * Pages are read from the database and then overlaid with the writes still held by
+ * {@link CurrencyWriteBehindBuffer}, so a pending create or update shows up on its page right away.
+ */
+@Service
+public class CurrencyPageService {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final CurrencyEntityRepository currencyEntityRepository;
+    private final CurrencyWriteBehindBuffer currencyWriteBehindBuffer;
+    private final CurrencyMapper currencyMapper;
+    private final CurrencyPageProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public CurrencyPageService(CurrencyEntityRepository currencyEntityRepository, CurrencyWriteBehindBuffer currencyWriteBehindBuffer,
+                               CurrencyMapper currencyMapper, CurrencyPageProperties properties, ObjectMapper objectMapper) {
+        this.currencyEntityRepository = currencyEntityRepository;
+        this.currencyWriteBehindBuffer = currencyWriteBehindBuffer;
+        this.currencyMapper = currencyMapper;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param after    exclusive code to start after, or {@code null} for the first page
+     * @param limit    page size, or {@code null} for {@code currency.page.default-limit}; capped at
+     *                 {@code currency.page.max-limit}
+     * @param fields   comma separated field names, or {@code null} for the full {@link CurrencyDTO}
+     * @param language value of {@link CurrencyDTO#getLanguage()} for full items
+     * @throws IllegalArgumentException if {@code limit} is not positive or {@code fields} names an unknown field
+     */
+    public CurrencyPage page(String after, Integer limit, Sort.Direction direction, String fields, String language) {
+        int size = limit == null ? properties.getDefaultLimit() : limit;
+        if (size < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        size = Math.min(size, properties.getMaxLimit());
+        Set<Field> selected = fields == null ? null : Field.parse(fields);
+
+        // 多查一筆判斷是否還有下一頁
+        Class<? extends CurrencyProjections.Code> type = selected == null ? CurrencyProjections.Full.class : projection(selected);
+        List<? extends CurrencyProjections.Code> rows = currencyWriteBehindBuffer.overlayPage(query(after, size + 1, direction, type), after, direction, size + 1);
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = rows.get(size - 1).getCode();
+        }
+        return new CurrencyPage(selected == null ? writeFull(rows, language) : write(rows, selected), nextCursor);
+    }
+
+    private <T> List<T> query(String after, int limit, Sort.Direction direction, Class<T> type) {
+        Sort sort = Sort.by(direction, "code");
+        if (after == null) {
+            return currencyEntityRepository.findAllBy(sort, Limit.of(limit), type);
+        }
+        return direction.isAscending()
+                ? currencyEntityRepository.findByCodeGreaterThan(after, sort, Limit.of(limit), type)
+                : currencyEntityRepository.findByCodeLessThan(after, sort, Limit.of(limit), type);
+    }
+
+    private static Class<? extends CurrencyProjections.Code> projection(Set<Field> fields) {
+        if (fields.contains(Field.UPDATED) || fields.contains(Field.RATE_FLOAT) && fields.contains(Field.CURRENCY_NAME_CN)) {
+            return CurrencyProjections.Full.class;
+        }
+        if (fields.contains(Field.RATE_FLOAT)) {
+            return CurrencyProjections.Rate.class;
+        }
+        if (fields.contains(Field.CURRENCY_NAME_CN)) {
+            return CurrencyProjections.Name.class;
+        }
+        return CurrencyProjections.Code.class;
+    }
+
+    private byte[] writeFull(List<? extends CurrencyProjections.Code> rows, String language) {
+        List<CurrencyDTO> dtos = rows.stream()
+                .map(row -> {
+                    CurrencyDTO dto = currencyMapper.toDTO((CurrencyProjections.Full) row);
+                    dto.setLanguage(language);
+                    return dto;
+                })
+                .toList();
+        try {
+            return objectMapper.writeValueAsBytes(dtos);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to serialize currency page", e);
+        }
+    }
+
+    private byte[] write(List<? extends CurrencyProjections.Code> rows, Set<Field> fields) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            for (CurrencyProjections.Code row : rows) {
+                generator.writeStartObject();
+                generator.writeStringField("code", row.getCode());
+                if (fields.contains(Field.CURRENCY_NAME_CN)) {
+                    generator.writeStringField("currencyNameCN", ((CurrencyProjections.Name) row).getCurrencyNameCN());
+                }
+                if (fields.contains(Field.RATE_FLOAT)) {
+                    generator.writeFieldName("rateFloat");
+                    generator.writeNumber(((CurrencyProjections.Rate) row).getRateFloat());
+                }
+                if (fields.contains(Field.UPDATED)) {
+                    CurrencyProjections.Full full = (CurrencyProjections.Full) row;
+                    generator.writeStringField("updated", full.getUpdated() == null ? null : UpdatedTimestampFormatter.format(full.getUpdated()));
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to serialize currency page", e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    enum Field {
+        CODE("code"), CURRENCY_NAME_CN("currencyNameCN"), RATE_FLOAT("rateFloat"), UPDATED("updated");
+
+        private final String name;
+
+        Field(String name) {
+            this.name = name;
+        }
+
+        static Set<Field> parse(String fields) {
+            Set<Field> parsed = EnumSet.of(CODE);
+            for (String candidate : fields.split(",")) {
+                String name = candidate.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                Field field = null;
+                for (Field value : values()) {
+                    if (value.name.equals(name)) {
+                        field = value;
+                    }
+                }
+                if (field == null) {
+                    throw new IllegalArgumentException("Unknown field: " + name);
+                }
+                parsed.add(field);
+            }
+            return parsed;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.currency;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Closed interface projections of {@link CurrencyEntity}; Spring Data selects only the columns
+ * a projection declares.
+ */
+public final class CurrencyProjections {
+    private CurrencyProjections() {
+    }
+
+    public interface Code {
+        String getCode();
+    }
+
+    public interface Rate extends Code {
+        BigDecimal getRateFloat();
+    }
+
+    public interface Name extends Code {
+        String getCurrencyNameCN();
+    }
+
+    public interface Full extends Rate, Name {
+        Timestamp getUpdated();
+    }
+}
@@ -0,0 +1,349 @@
+package com.example.demo.currency;
+
+import com.example.demo.config.BaseLogger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-through cache of {@link CurrencyEntity} rows keyed by currency code.
+ * <p>
+ * Reads are lock-free; mutations are serialized so that a reload from the database
+ * never overwrites a newer value written by {@link #put} while the reload was running.
+ * Returned entities are shared between callers and must be treated as read-only.
+ * Every rate change is announced with a {@link CurrencyRatesChangedEvent} once the write lock has been
+ * released, so listener cost never holds up other writers. Only real changes are announced: reloading an
+ * expired entry with the same rate publishes nothing, and evicting an entry to stay within
+ * {@code currency.cache.max-size} publishes nothing either, since the currency still exists. A removal is
+ * published by {@link #evict}/{@link #evictAll} and when a read-through finds the row gone.
+ */
+@Component
+public class CurrencyRateCache extends BaseLogger implements ApplicationEventPublisherAware {
+    private static final String SORT_PROPERTY = "code";
+
+    private final CurrencyEntityRepository currencyEntityRepository;
+    private final CurrencyCacheProperties properties;
+
+    private final Map<String, CachedRate> entries = new ConcurrentHashMap<>();
+    // 依到期先後排列的代碼，以及因容量淘汰但仍存在的代碼；只在持有 writeLock 時存取
+    private final LinkedHashSet<String> expiryOrder = new LinkedHashSet<>();
+    private final Set<String> evictedForCapacity = new HashSet<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicLong version = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // 尚未發布的異動，只在持有 writeLock 時存取
+    private final Map<String, Long> pendingChanges = new HashMap<>();
+    private boolean pendingReload;
+    // 已套用但尚未發布的事件，listener 在 writeLock 之外執行
+    private final Queue<CurrencyRatesChangedEvent> unpublished = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private ApplicationEventPublisher eventPublisher;
+
+    // 快取內容等同整張表時的到期時間 (System.nanoTime)，0 表示不完整
+    private volatile long completeUntil;
+
+    @Autowired
+    public CurrencyRateCache(CurrencyEntityRepository currencyEntityRepository, CurrencyCacheProperties properties) {
+        this.currencyEntityRepository = currencyEntityRepository;
+        this.properties = properties;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    public CurrencyEntity findByCode(String code) {
+        long now = System.nanoTime();
+        CachedRate cached = entries.get(code);
+        if (cached != null && cached.isFresh(now)) {
+            hits.increment();
+            return cached.entity;
+        }
+        if (cached == null && isComplete(now)) {
+            // 整張表都在快取中，找不到即代表不存在
+            hits.increment();
+            return null;
+        }
+
+        misses.increment();
+        long observedVersion = version.get();
+        CurrencyEntity entity = currencyEntityRepository.findByCode(code);
+        writeLock.lock();
+        try {
+            if (version.get() == observedVersion) {
+                if (entity != null) {
+                    store(entity, now);
+                } else if (cached != null) {
+                    remove(code);
+                }
+            }
+        } finally {
+            unlockAndPublish();
+        }
+        return entity;
+    }
+
+    /**
+     * Rate of {@code code} as a {@link ScaledRate}, or {@link ScaledRate#NONE} if the currency or its rate is missing.
+     */
+    public long findScaledRate(String code) {
+        CurrencyEntity entity = findByCode(code);
+        return entity == null ? ScaledRate.NONE : entity.getScaledRate();
+    }
+
+    public List<CurrencyEntity> findAll(Sort sort) {
+        long now = System.nanoTime();
+        Comparator<CurrencyEntity> comparator = codeComparator(sort);
+        if (comparator != null && isComplete(now)) {
+            hits.increment();
+            List<CurrencyEntity> result = new ArrayList<>(entries.size());
+            entries.values().forEach(cached -> result.add(cached.entity));
+            result.sort(comparator);
+            return result;
+        }
+
+        misses.increment();
+        long observedVersion = version.get();
+        List<CurrencyEntity> loaded = currencyEntityRepository.findAll(sort);
+        replaceAll(loaded, observedVersion, now);
+        return loaded;
+    }
+
+    /**
+     * Records an entity that was just written to the database.
+     */
+    public void put(CurrencyEntity entity) {
+        writeLock.lock();
+        try {
+            store(entity, System.nanoTime());
+        } finally {
+            unlockAndPublish();
+        }
+    }
+
+    public void putAll(Collection<CurrencyEntity> entities) {
+        writeLock.lock();
+        try {
+            long now = System.nanoTime();
+            entities.forEach(entity -> store(entity, now));
+        } finally {
+            unlockAndPublish();
+        }
+    }
+
+    /**
+     * Removes {@code code} because the currency was deleted, announcing the removal.
+     */
+    public void evict(String code) {
+        writeLock.lock();
+        try {
+            remove(code);
+        } finally {
+            unlockAndPublish();
+        }
+    }
+
+    /**
+     * Evicts several codes under one lock, publishing a single change event.
+     */
+    public void evictAll(Collection<String> codes) {
+        writeLock.lock();
+        try {
+            codes.forEach(this::remove);
+        } finally {
+            unlockAndPublish();
+        }
+    }
+
+    /**
+     * Reloads the whole table, replacing every cached entry.
+     */
+    public void refresh() {
+        long observedVersion = version.get();
+        replaceAll(currencyEntityRepository.findAll(Sort.by(SORT_PROPERTY)), observedVersion, System.nanoTime());
+    }
+
+    /**
+     * Monotonic counter bumped whenever the cached view of the table changes.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Codes currently held by the cache; does not load anything from the database.
+     */
+    public Set<String> cachedCodes() {
+        return Set.copyOf(entries.keySet());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean isComplete(long now) {
+        long until = completeUntil;
+        return until != 0 && until - now > 0;
+    }
+
+    private void replaceAll(List<CurrencyEntity> loaded, long observedVersion, long now) {
+        writeLock.lock();
+        try {
+            if (version.get() != observedVersion) {
+                // 載入期間已有新的寫入，保留較新的快取內容
+                return;
+            }
+            if (loaded.size() > properties.getMaxSize()) {
+                logger.debug("currency table has {} rows, exceeding cache max size {}", loaded.size(), properties.getMaxSize());
+                completeUntil = 0;
+                return;
+            }
+            entries.clear();
+            expiryOrder.clear();
+            evictedForCapacity.clear();
+            long expiresAt = now + properties.getTtl().toNanos();
+            loaded.forEach(entity -> {
+                entries.put(entity.getCode(), new CachedRate(entity, expiresAt));
+                expiryOrder.add(entity.getCode());
+            });
+            completeUntil = expiresAt;
+            version.incrementAndGet();
+            pendingReload = true;
+        } finally {
+            unlockAndPublish();
+        }
+    }
+
+    private void store(CurrencyEntity entity, long now) {
+        String code = entity.getCode();
+        CachedRate previous = entries.put(code, new CachedRate(entity, now + properties.getTtl().toNanos()));
+        // TTL 相同，最後寫入者最晚到期
+        expiryOrder.remove(code);
+        expiryOrder.add(code);
+        evictedForCapacity.remove(code);
+        version.incrementAndGet();
+        // 到期後重新載入的匯率未變時不發布
+        if (previous == null || previous.entity.getScaledRate() != entity.getScaledRate()) {
+            pendingChanges.put(code, entity.getScaledRate());
+        }
+        while (entries.size() > properties.getMaxSize()) {
+            evictOldest();
+        }
+    }
+
+    private void remove(String code) {
+        boolean cached = entries.remove(code) != null;
+        if (cached) {
+            expiryOrder.remove(code);
+            version.incrementAndGet();
+        }
+        if (cached | evictedForCapacity.remove(code)) {
+            pendingChanges.put(code, ScaledRate.NONE);
+        }
+    }
+
+    private void unlockAndPublish() {
+        try {
+            if (pendingReload || !pendingChanges.isEmpty()) {
+                CurrencyRatesChangedEvent event;
+                if (pendingReload) {
+                    Map<String, Long> rates = new HashMap<>();
+                    entries.forEach((code, cached) -> rates.put(code, cached.entity.getScaledRate()));
+                    event = new CurrencyRatesChangedEvent(Map.copyOf(rates), true);
+                } else {
+                    event = new CurrencyRatesChangedEvent(Map.copyOf(pendingChanges), false);
+                }
+                pendingChanges.clear();
+                pendingReload = false;
+                // 在鎖內排入佇列，佇列順序即版本順序
+                unpublished.add(event);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        publishPending();
+    }
+
+    /**
+     * Delivers queued events in order, one publisher at a time. Whoever holds {@link #publishLock} drains
+     * the queue, so by the time a caller returns its own event has been delivered, either by itself or
+     * by the thread that held the lock before it.
+     */
+    private void publishPending() {
+        if (unpublished.isEmpty()) {
+            return;
+        }
+        publishLock.lock();
+        try {
+            CurrencyRatesChangedEvent event;
+            while ((event = unpublished.poll()) != null) {
+                if (eventPublisher != null) {
+                    eventPublisher.publishEvent(event);
+                }
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private void evictOldest() {
+        Iterator<String> oldest = expiryOrder.iterator();
+        String code = oldest.next();
+        oldest.remove();
+        entries.remove(code);
+        // 幣別仍然存在，不發布移除事件
+        evictedForCapacity.add(code);
+        evictions.increment();
+        completeUntil = 0;
+    }
+
+    private static Comparator<CurrencyEntity> codeComparator(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != 1 || !SORT_PROPERTY.equals(orders.get(0).getProperty())) {
+            return null;
+        }
+        Comparator<CurrencyEntity> comparator = Comparator.comparing(CurrencyEntity::getCode);
+        return orders.get(0).isDescending() ? comparator.reversed() : comparator;
+    }
+
+    private record CachedRate(CurrencyEntity entity, long expiresAt) {
+        boolean isFresh(long now) {
+            return expiresAt - now > 0;
+        }
+    }
+}
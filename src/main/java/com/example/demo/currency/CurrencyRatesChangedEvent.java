@@ -0,0 +1,14 @@
+package com.example.demo.currency;
+
+import java.util.Map;
+
+/**
+ * Published by {@link CurrencyRateCache} after it releases its write lock, one event at a time and in the
+ * order the changes were applied; the mutating call returns once its event has been delivered. Listeners
+ * should be quick, since the next event waits for them.
+ *
+ * @param rates    changed codes with their new {@link ScaledRate}; {@link ScaledRate#NONE} means the code was removed
+ * @param reloaded {@code true} if the cache was reloaded and {@code rates} is its complete content
+ */
+public record CurrencyRatesChangedEvent(Map<String, Long> rates, boolean reloaded) {
+}
@@ -0,0 +1,349 @@
+package com.example.demo.currency;
+
+import com.example.demo.config.BaseLogger;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Optional write-behind path for {@link CurrencyController} creates and updates
+ * ({@code currency.write-behind.enabled}).
+ * <p>
+ * Writes land in a map keyed by code, so the last write to a code wins, and are also put into
+ * {@link CurrencyRateCache} right away. A background thread flushes the map to the database in batched
+ * transactions every {@code flush-interval}, or sooner once {@code flush-threshold} codes are pending;
+ * whatever is left is flushed on shutdown. A batch the database rejects permanently is retried row by row
+ * and only the rejected codes are dropped, so one bad write cannot block the rest; a transient failure
+ * keeps everything pending for the next flush. Until a write is flushed, {@link #find(String)},
+ * {@link #overlay(List, Sort.Direction)} and {@link #overlayPage(List, String, Sort.Direction, int)} serve it
+ * even if the cache has been reloaded from the database.
+ * <p>
+ * Entities held in the map are never mutated; every write stores a new copy.
+ */
+@Component
+public class CurrencyWriteBehindBuffer extends BaseLogger {
+    private final CurrencyEntityRepository currencyEntityRepository;
+    private final CurrencyRateCache currencyRateCache;
+    private final CurrencyMapper currencyMapper;
+    private final CurrencyWriteBehindProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, CurrencyEntity> pending = new ConcurrentHashMap<>();
+    // 寫回期間持有，刪除時用來確保不會在刪除後又被寫回
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final LongAdder dropped = new LongAdder();
+    private final ScheduledExecutorService flusher;
+
+    @Autowired
+    public CurrencyWriteBehindBuffer(CurrencyEntityRepository currencyEntityRepository, CurrencyRateCache currencyRateCache,
+                                     CurrencyMapper currencyMapper, CurrencyWriteBehindProperties properties,
+                                     PlatformTransactionManager transactionManager) {
+        this.currencyEntityRepository = currencyEntityRepository;
+        this.currencyRateCache = currencyRateCache;
+        this.currencyMapper = currencyMapper;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        if (properties.isEnabled()) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "currency-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(1, properties.getFlushInterval().toMillis());
+            flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues a new currency.
+     *
+     * @return the pending entity, or {@code null} if the code already exists or is already pending
+     * @throws ArithmeticException if the rate does not fit a {@link ScaledRate}
+     */
+    public CurrencyEntity create(String code, String currencyNameCN, BigDecimal rateFloat, Timestamp updated) {
+        CurrencyEntity entity = currencyMapper.toEntity(code, currencyNameCN, rateFloat, updated);
+        if (pending.containsKey(code) || currencyRateCache.findByCode(code) != null) {
+            return null;
+        }
+        if (pending.putIfAbsent(code, entity) != null) {
+            return null;
+        }
+        accepted(entity);
+        return entity;
+    }
+
+    /**
+     * Queues a partial update on top of the latest pending or stored state of {@code code}.
+     *
+     * @return the pending entity, or {@code null} if the code does not exist
+     * @throws ArithmeticException if the rate does not fit a {@link ScaledRate}
+     */
+    public CurrencyEntity update(String code, BigDecimal rateFloat, String currencyNameCN, Timestamp updated) {
+        CurrencyEntity stored = currencyRateCache.findByCode(code);
+        CurrencyEntity entity = pending.compute(code, (key, current) -> {
+            CurrencyEntity base = current != null ? current : stored;
+            if (base == null) {
+                return null;
+            }
+            CurrencyEntity copy = currencyMapper.toEntity(base.getCode(), base.getCurrencyNameCN(), base.getRateFloat(), base.getUpdated());
+            currencyMapper.updateEntity(copy, rateFloat, currencyNameCN, updated);
+            return copy;
+        });
+        if (entity != null) {
+            accepted(entity);
+        }
+        return entity;
+    }
+
+    /**
+     * @return the pending state of {@code code}, or {@code null} if nothing is pending
+     */
+    public CurrencyEntity find(String code) {
+        return pending.get(code);
+    }
+
+    /**
+     * Applies pending writes on top of a list read from the cache or database, keeping it sorted by code.
+     */
+    public List<CurrencyEntity> overlay(List<CurrencyEntity> entities, Sort.Direction direction) {
+        if (pending.isEmpty()) {
+            return entities;
+        }
+        Map<String, CurrencyEntity> merged = new HashMap<>(entities.size() + pending.size());
+        entities.forEach(entity -> merged.put(entity.getCode(), entity));
+        merged.putAll(pending);
+        Comparator<CurrencyEntity> comparator = Comparator.comparing(CurrencyEntity::getCode);
+        List<CurrencyEntity> result = new ArrayList<>(merged.values());
+        result.sort(direction == Sort.Direction.DESC ? comparator.reversed() : comparator);
+        return result;
+    }
+
+    /**
+     * Applies pending writes to a keyset page read from the database. {@code rows} must be the first
+     * {@code limit} rows past {@code after} in {@code direction}; pending codes past {@code after} replace or
+     * join them and the result is cut back to {@code limit}, so it is the page the database will hold after flush.
+     * Pending entities carry every field, so they can stand in for any projection.
+     */
+    public List<? extends CurrencyProjections.Code> overlayPage(List<? extends CurrencyProjections.Code> rows, String after,
+                                                              Sort.Direction direction, int limit) {
+        if (pending.isEmpty()) {
+            return rows;
+        }
+        Comparator<String> order = direction == Sort.Direction.DESC ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        // 資料庫已取滿一頁時，排在最後一筆之後的暫存資料屬於下一頁
+        String last = rows.size() < limit ? null : rows.get(rows.size() - 1).getCode();
+        Map<String, CurrencyProjections.Code> merged = new TreeMap<>(order);
+        rows.forEach(row -> merged.put(row.getCode(), row));
+        for (CurrencyEntity entity : pending.values()) {
+            String code = entity.getCode();
+            if ((after == null || order.compare(code, after) > 0) && (last == null || order.compare(code, last) <= 0)) {
+                merged.put(code, entity);
+            }
+        }
+        List<CurrencyProjections.Code> result = new ArrayList<>(merged.values());
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    /**
+     * Drops the pending write of {@code code}, waiting for a flush in progress to finish first. A row that
+     * flush already wrote is left to the caller to delete.
+     *
+     * @return {@code true} if a pending write was dropped
+     */
+    public boolean discard(String code) {
+        if (pending.isEmpty()) {
+            return false;
+        }
+        flushLock.lock();
+        try {
+            return pending.remove(code) != null;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes given up on because the database rejected them permanently, e.g. a constraint violation.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Writes every pending entry in transactions of at most {@code batch-size} codes.
+     *
+     * @return the number of rows written
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            return writePending(new ArrayList<>(pending.values()));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes only the pending entries of {@code codes}, so a caller about to read those codes from the
+     * database sees the latest accepted writes. Must not be called inside another transaction.
+     *
+     * @return the number of rows written
+     */
+    public int flush(Collection<String> codes) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        flushLock.lock();
+        try {
+            List<CurrencyEntity> snapshot = new ArrayList<>();
+            for (String code : codes) {
+                CurrencyEntity entity = pending.get(code);
+                if (entity != null) {
+                    snapshot.add(entity);
+                }
+            }
+            return writePending(snapshot);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int writePending(List<CurrencyEntity> snapshot) {
+        if (snapshot.isEmpty()) {
+            return 0;
+        }
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int written = 0;
+        for (int from = 0; from < snapshot.size(); from += batchSize) {
+            List<CurrencyEntity> batch = snapshot.subList(from, Math.min(snapshot.size(), from + batchSize));
+            List<CurrencyEntity> saved;
+            try {
+                saved = write(batch);
+            } catch (NonTransientDataAccessException e) {
+                // 整批失敗時逐筆重試，只丟棄無法寫入的幣別
+                logger.debug("write-behind batch of {} codes failed, retrying row by row: {}", batch.size(), e.toString());
+                saved = writeEach(batch);
+            }
+            currencyRateCache.putAll(saved);
+            // 寫回期間又被覆寫的幣別留待下次寫回，被丟棄的幣別已移除
+            batch.forEach(entity -> pending.remove(entity.getCode(), entity));
+            written += saved.size();
+        }
+        return written;
+    }
+
+    private List<CurrencyEntity> writeEach(List<CurrencyEntity> batch) {
+        List<CurrencyEntity> saved = new ArrayList<>(batch.size());
+        for (CurrencyEntity entity : batch) {
+            try {
+                saved.addAll(write(List.of(entity)));
+            } catch (NonTransientDataAccessException e) {
+                drop(entity, e);
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Gives up on a write the database will never accept, so it cannot block later flushes. The cached
+     * value is evicted so reads fall back to the stored row.
+     */
+    private void drop(CurrencyEntity entity, RuntimeException e) {
+        if (pending.remove(entity.getCode(), entity)) {
+            dropped.increment();
+            currencyRateCache.evict(entity.getCode());
+            logger.warn("write-behind dropped {}: {}", entity.getCode(), e.toString());
+        }
+    }
+
+    private List<CurrencyEntity> write(List<CurrencyEntity> batch) {
+        return transactionTemplate.execute(status -> {
+            Set<String> codes = batch.stream().map(CurrencyEntity::getCode).collect(Collectors.toSet());
+            Map<String, CurrencyEntity> existingEntities = currencyEntityRepository.findByCodeIn(codes).stream()
+                    .collect(Collectors.toMap(CurrencyEntity::getCode, Function.identity()));
+
+            List<CurrencyEntity> entities = new ArrayList<>(batch.size());
+            for (CurrencyEntity source : batch) {
+                CurrencyEntity target = existingEntities.get(source.getCode());
+                if (target == null) {
+                    target = new CurrencyEntity();
+                    target.setCode(source.getCode());
+                }
+                target.setCurrencyNameCN(source.getCurrencyNameCN());
+                target.setUpdated(source.getUpdated());
+                if (target.getScaledRate() != source.getScaledRate()) {
+                    target.setScaledRate(source.getScaledRate());
+                }
+                entities.add(target);
+            }
+            return currencyEntityRepository.saveAll(entities);
+        });
+    }
+
+    private void accepted(CurrencyEntity entity) {
+        currencyRateCache.put(entity);
+        if (pending.size() >= properties.getFlushThreshold() && flusher != null && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // 保留待寫入資料，下次再試
+            logger.warn("write-behind flush failed, {} codes still pending: {}", pending.size(), e.toString());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            int written = flush();
+            if (written > 0) {
+                logger.info("write-behind flushed {} codes on shutdown", written);
+            }
+        } catch (RuntimeException e) {
+            logger.error("write-behind flush failed on shutdown, {} codes not written: {}", pending.size(), e.toString());
+        }
+    }
+}
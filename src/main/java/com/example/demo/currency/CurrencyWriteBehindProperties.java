@@ -0,0 +1,21 @@
+package com.example.demo.currency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.write-behind")
+public class CurrencyWriteBehindProperties {
+    // 開啟後新增與修改先寫入記憶體，再批次寫回資料庫
+    private boolean enabled = false;
+    // 定期寫回的間隔
+    private Duration flushInterval = Duration.ofMillis(200);
+    // 待寫入的幣別數達到此值時立即寫回
+    private int flushThreshold = 256;
+    // 每個交易最多寫入的幣別數
+    private int batchSize = 500;
+}
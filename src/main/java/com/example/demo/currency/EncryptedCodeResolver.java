@@ -0,0 +1,103 @@
+package com.example.demo.currency;
+
+import com.example.demo.config.BaseLogger;
+import com.example.demo.util.EncryptionUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the encrypted currency code used by {@code GET /api/currency/{encryptCode}}.
+ * <p>
+ * AES/ECB is deterministic, so the token of every code held by {@link CurrencyRateCache} is computed up
+ * front. The token table follows {@link CurrencyRatesChangedEvent}s off the request path, encrypting only
+ * codes it has not seen before; a rate change alone costs nothing. Other tokens are decrypted once and
+ * remembered in a bounded map; tokens that fail to decrypt are remembered in a bounded negative cache.
+ */
+@Component
+public class EncryptedCodeResolver extends BaseLogger {
+    private final CurrencyCacheProperties properties;
+
+    // token → code，只由 onRatesChanged 寫入，讀取不需加鎖
+    private final Map<String, String> knownTokens = new ConcurrentHashMap<>();
+    // code → token，只在 onRatesChanged 中存取
+    private final Map<String, String> tokenOfCode = new HashMap<>();
+    private final Map<String, String> decryptedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> invalidTokens = new ConcurrentHashMap<>();
+
+    @Autowired
+    public EncryptedCodeResolver(CurrencyCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is not a valid encrypted code
+     */
+    public String resolve(String encryptCode) {
+        String code = knownTokens.get(encryptCode);
+        if (code != null) {
+            return code;
+        }
+        code = decryptedTokens.get(encryptCode);
+        if (code != null) {
+            return code;
+        }
+        if (invalidTokens.containsKey(encryptCode)) {
+            throw new IllegalArgumentException("Invalid currency token");
+        }
+
+        try {
+            code = EncryptionUtil.decrypt(encryptCode);
+        } catch (Exception e) {
+            remember(invalidTokens, encryptCode, Boolean.TRUE, properties.getInvalidTokenMaxSize());
+            throw new IllegalArgumentException("Invalid currency token", e);
+        }
+        remember(decryptedTokens, encryptCode, code, properties.getTokenMaxSize());
+        return code;
+    }
+
+    @EventListener
+    public synchronized void onRatesChanged(CurrencyRatesChangedEvent event) {
+        if (event.reloaded()) {
+            for (Iterator<Map.Entry<String, String>> entries = tokenOfCode.entrySet().iterator(); entries.hasNext(); ) {
+                Map.Entry<String, String> entry = entries.next();
+                if (!event.rates().containsKey(entry.getKey())) {
+                    knownTokens.remove(entry.getValue());
+                    entries.remove();
+                }
+            }
+        }
+        event.rates().forEach((code, rate) -> {
+            if (rate == ScaledRate.NONE) {
+                String token = tokenOfCode.remove(code);
+                if (token != null) {
+                    knownTokens.remove(token);
+                }
+            } else if (!tokenOfCode.containsKey(code)) {
+                try {
+                    String token = EncryptionUtil.encrypt(code);
+                    tokenOfCode.put(code, token);
+                    knownTokens.put(token, code);
+                } catch (Exception e) {
+                    logger.debug("unable to precompute token for {}: {}", code, e.getMessage());
+                }
+            }
+        });
+    }
+
+    int knownTokenCount() {
+        return knownTokens.size();
+    }
+
+    private static <V> void remember(Map<String, V> map, String token, V value, int maxSize) {
+        if (map.size() >= maxSize) {
+            map.clear();
+        }
+        map.put(token, value);
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.demo.currency;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point rate held in a primitive {@code long}: the value multiplied by 10^4, matching the
+ * {@code DECIMAL(19, 4)} scale of {@code rate_float}.
+ * <p>
+ * Conversions round {@link RoundingMode#HALF_UP}, the same rounding the database applies when a value
+ * with more decimals is stored. A {@code long} covers about +/-922 trillion, a little less than the 15
+ * integer digits of the column; larger values are rejected instead of silently wrapping, or mapped to
+ * {@link #NONE} by {@link #ofNullableOrNone(BigDecimal)} where the {@link BigDecimal} stays authoritative.
+ * {@link #NONE} marks a missing rate and is never the result of a conversion.
+ */
+public final class ScaledRate {
+    public static final int SCALE = 4;
+    public static final long UNIT = 10_000L;
+    public static final long NONE = Long.MIN_VALUE;
+    public static final long MAX = Long.MAX_VALUE;
+    public static final long MIN = -Long.MAX_VALUE;
+
+    private static final BigDecimal MAX_DECIMAL = BigDecimal.valueOf(MAX, SCALE);
+    private static final BigDecimal MIN_DECIMAL = BigDecimal.valueOf(MIN, SCALE);
+
+    private ScaledRate() {
+    }
+
+    /**
+     * @throws ArithmeticException if the rounded value does not fit
+     */
+    public static long of(BigDecimal rate) {
+        long scaled = ofNullableOrNone(rate);
+        if (scaled == NONE) {
+            throw new ArithmeticException("rate out of range: " + rate.toPlainString());
+        }
+        return scaled;
+    }
+
+    /**
+     * Like {@link #of(BigDecimal)} but maps {@code null} to {@link #NONE}.
+     */
+    public static long ofNullable(BigDecimal rate) {
+        return rate == null ? NONE : of(rate);
+    }
+
+    /**
+     * Like {@link #ofNullable(BigDecimal)} but maps a value that does not fit to {@link #NONE} instead of throwing.
+     */
+    public static long ofNullableOrNone(BigDecimal rate) {
+        if (rate == null) {
+            return NONE;
+        }
+        BigDecimal rounded = rate.setScale(SCALE, RoundingMode.HALF_UP);
+        if (rounded.compareTo(MAX_DECIMAL) > 0 || rounded.compareTo(MIN_DECIMAL) < 0) {
+            return NONE;
+        }
+        return rounded.unscaledValue().longValue();
+    }
+
+    public static BigDecimal toBigDecimal(long scaled) {
+        if (scaled == NONE) {
+            return null;
+        }
+        return BigDecimal.valueOf(scaled, SCALE);
+    }
+
+    /**
+     * Parses a plain decimal number ({@code -123.45678}) without allocating, rounding extra decimals half-up.
+     * Exponent notation is delegated to {@link BigDecimal}.
+     *
+     * @throws NumberFormatException if the text is not a number
+     * @throws ArithmeticException   if the rounded value does not fit
+     */
+    public static long parse(char[] text, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (text[i] == '-' || text[i] == '+')) {
+            negative = text[i] == '-';
+            i++;
+        }
+        if (i == end) {
+            throw new NumberFormatException("empty rate");
+        }
+
+        // 以負數累加，才能表示 MIN 而不溢位
+        long value = 0;
+        int decimals = -1;
+        boolean digits = false;
+        boolean roundUp = false;
+        for (; i < end; i++) {
+            char c = text[i];
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                digits = true;
+                if (decimals < SCALE) {
+                    value = Math.subtractExact(Math.multiplyExact(value, 10), c - '0');
+                    if (decimals >= 0) {
+                        decimals++;
+                    }
+                } else if (decimals == SCALE) {
+                    roundUp = c >= '5';
+                    decimals++;
+                }
+            } else if (c == 'e' || c == 'E') {
+                return of(new BigDecimal(text, offset, length));
+            } else {
+                throw new NumberFormatException("invalid rate: " + new String(text, offset, length));
+            }
+        }
+        if (!digits) {
+            throw new NumberFormatException("invalid rate: " + new String(text, offset, length));
+        }
+        for (int d = Math.max(decimals, 0); d < SCALE; d++) {
+            value = Math.multiplyExact(value, 10);
+        }
+        if (roundUp) {
+            value = Math.subtractExact(value, 1);
+        }
+        if (value == Long.MIN_VALUE && !negative) {
+            throw new ArithmeticException("rate out of range: " + new String(text, offset, length));
+        }
+        return negative ? checked(value) : -value;
+    }
+
+    public static long parse(String text) {
+        return parse(text.toCharArray(), 0, text.length());
+    }
+
+    /**
+     * {@code a * b}, both scaled, rounded half-up (away from zero) to 4 decimals.
+     *
+     * @throws ArithmeticException if the result does not fit
+     */
+    public static long multiply(long a, long b) {
+        return multiplyDivide(a, b, UNIT);
+    }
+
+    /**
+     * {@code a / b}, both scaled, rounded half-up (away from zero) to 4 decimals.
+     *
+     * @throws ArithmeticException if {@code b} is zero or the result does not fit
+     */
+    public static long divide(long a, long b) {
+        return multiplyDivide(a, UNIT, b);
+    }
+
+    /**
+     * {@code a * b / c} with a single half-up rounding at the end. Stays on primitives while
+     * {@code a * b} fits a {@code long}, otherwise falls back to {@link BigDecimal}.
+     *
+     * @throws ArithmeticException if {@code c} is zero, an argument is {@link #NONE} or the result does not fit
+     */
+    public static long multiplyDivide(long a, long b, long c) {
+        if (c == 0) {
+            throw new ArithmeticException("division by zero rate");
+        }
+        if (a == NONE || b == NONE || c == NONE) {
+            throw new ArithmeticException("missing rate");
+        }
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return checked(roundedDivide(low, c));
+        }
+        BigDecimal exact = new BigDecimal(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)))
+                .divide(BigDecimal.valueOf(c), 0, RoundingMode.HALF_UP);
+        if (exact.compareTo(BigDecimal.valueOf(MAX)) > 0 || exact.compareTo(BigDecimal.valueOf(MIN)) < 0) {
+            throw new ArithmeticException("rate out of range");
+        }
+        return exact.longValue();
+    }
+
+    private static long roundedDivide(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        // |remainder| * 2 >= |divisor| 時遠離零進位；以減法比較避免溢位
+        if (remainder != 0 && Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += ((dividend ^ divisor) < 0) ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    private static long checked(long scaled) {
+        if (scaled == NONE) {
+            throw new ArithmeticException("rate out of range");
+        }
+        return scaled;
+    }
+}
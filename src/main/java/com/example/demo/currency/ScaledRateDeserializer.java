@@ -0,0 +1,37 @@
+package com.example.demo.currency;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads a JSON number (or numeric string) straight into a {@link ScaledRate}, parsing the token's
+ * characters in place instead of going through {@code double} or {@code BigDecimal}.
+ */
+public class ScaledRateDeserializer extends StdDeserializer<Long> {
+
+    public ScaledRateDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_STRING) {
+            return (Long) context.handleUnexpectedToken(Long.class, parser);
+        }
+        try {
+            return ScaledRate.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        } catch (NumberFormatException | ArithmeticException e) {
+            return (Long) context.handleWeirdStringValue(Long.class, parser.getText(), e.getMessage());
+        }
+    }
+
+    @Override
+    public Long getNullValue(DeserializationContext context) {
+        return ScaledRate.NONE;
+    }
+}
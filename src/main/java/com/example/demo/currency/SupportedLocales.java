@@ -0,0 +1,46 @@
+package com.example.demo.currency;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The locales the API answers in, matched from an {@code Accept-Language} header the way
+ * {@link com.example.demo.config.WebMvcConfig}'s resolver does: an exact match first, then a match on the
+ * language alone, otherwise {@link Locale#TAIWAN}. Anything keyed by locale stays bounded by this set.
+ */
+public final class SupportedLocales {
+    public static final List<Locale> ALL = List.of(Locale.TAIWAN, Locale.ENGLISH);
+    public static final Locale DEFAULT = Locale.TAIWAN;
+
+    private SupportedLocales() {
+    }
+
+    public static Locale resolve(String acceptLanguage) {
+        if (acceptLanguage == null || acceptLanguage.isBlank()) {
+            return DEFAULT;
+        }
+        List<Locale.LanguageRange> ranges;
+        try {
+            ranges = Locale.LanguageRange.parse(acceptLanguage);
+        } catch (IllegalArgumentException e) {
+            return DEFAULT;
+        }
+        List<Locale> requested = ranges.stream()
+                .filter(range -> range.getWeight() > 0)
+                .map(range -> Locale.forLanguageTag(range.getRange()))
+                .toList();
+        for (Locale locale : requested) {
+            if (ALL.contains(locale)) {
+                return locale;
+            }
+        }
+        for (Locale locale : requested) {
+            for (Locale supported : ALL) {
+                if (supported.getLanguage().equals(locale.getLanguage())) {
+                    return supported;
+                }
+            }
+        }
+        return DEFAULT;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.currency;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Formats {@code updated} timestamps as {@code yyyy/MM/dd HH:mm:ss} in the JVM default time zone, the same
+ * text the former per-call {@code SimpleDateFormat} produced; backs {@link CurrencyDTO#getUpdated()}.
+ * <p>
+ * A rate keeps its {@code updated} value until the next refresh, so formatted strings are cached
+ * per epoch second in a lock-free map that is simply cleared once it reaches its bound.
+ */
+public final class UpdatedTimestampFormatter {
+    public static final String PATTERN = "yyyy/MM/dd HH:mm:ss";
+    static final int CACHE_SIZE = 4096;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN).withZone(ZoneId.systemDefault());
+    private static final Map<Long, String> CACHE = new ConcurrentHashMap<>();
+
+    private UpdatedTimestampFormatter() {
+    }
+
+    public static String format(Timestamp timestamp) {
+        long epochSecond = Math.floorDiv(timestamp.getTime(), 1000L);
+        String formatted = CACHE.get(epochSecond);
+        if (formatted == null) {
+            // 滿了就整個清空，不必為了 LRU 順序加鎖；同時寫入的執行緒最多讓上限略為超出
+            if (CACHE.size() >= CACHE_SIZE) {
+                CACHE.clear();
+            }
+            formatted = formatUncached(timestamp);
+            CACHE.put(epochSecond, formatted);
+        }
+        return formatted;
+    }
+
+    static boolean isCached(Timestamp timestamp) {
+        return CACHE.containsKey(Math.floorDiv(timestamp.getTime(), 1000L));
+    }
+
+    static int cacheSize() {
+        return CACHE.size();
+    }
+
+    public static String formatUncached(Timestamp timestamp) {
+        return FORMATTER.format(Instant.ofEpochMilli(timestamp.getTime()));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.encryption;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bulk encryption endpoints. The request body is parsed incrementally while results stream back through
+ * {@link StreamingResponseBody}, so neither side is held in memory as a whole. Only Spring MVC supports
+ * that, so they are left out of the WebFlux {@code reactive} profile.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/encryption")
+public class EncryptionBulkController {
+    private final EncryptionBulkService encryptionBulkService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public EncryptionBulkController(EncryptionBulkService encryptionBulkService, ObjectMapper objectMapper) {
+        this.encryptionBulkService = encryptionBulkService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(value = "/encrypt/bulk", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(description = "Encrypt a JSON array of values, results are returned in input order")
+    public ResponseEntity<StreamingResponseBody> encryptBulk(InputStream body) throws IOException {
+        return bulk(jsonArray(body), EncryptionBulkService.Operation.ENCRYPT, false);
+    }
+
+    @PostMapping(value = "/encrypt/bulk", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_NDJSON_VALUE}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(description = "Encrypt newline-delimited values, one JSON result per line in input order")
+    public ResponseEntity<StreamingResponseBody> encryptBulkLines(InputStream body) {
+        return bulk(lines(body), EncryptionBulkService.Operation.ENCRYPT, true);
+    }
+
+    @PostMapping(value = "/decrypt/bulk", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(description = "Decrypt a JSON array of values, results are returned in input order")
+    public ResponseEntity<StreamingResponseBody> decryptBulk(InputStream body) throws IOException {
+        return bulk(jsonArray(body), EncryptionBulkService.Operation.DECRYPT, false);
+    }
+
+    @PostMapping(value = "/decrypt/bulk", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_NDJSON_VALUE}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(description = "Decrypt newline-delimited values, one JSON result per line in input order")
+    public ResponseEntity<StreamingResponseBody> decryptBulkLines(InputStream body) {
+        return bulk(lines(body), EncryptionBulkService.Operation.DECRYPT, true);
+    }
+
+    private ResponseEntity<StreamingResponseBody> bulk(EncryptionBulkService.ChunkReader reader, EncryptionBulkService.Operation operation, boolean newlineDelimited) {
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            if (!newlineDelimited) {
+                generator.writeStartArray();
+            }
+            encryptionBulkService.process(reader, operation, results -> {
+                for (EncryptionBulkResult result : results) {
+                    generator.writeObject(result);
+                    if (newlineDelimited) {
+                        generator.writeRaw('\n');
+                    }
+                }
+                generator.flush();
+            });
+            if (!newlineDelimited) {
+                generator.writeEndArray();
+            }
+            generator.close();
+        };
+
+        MediaType contentType = newlineDelimited ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    private EncryptionBulkService.ChunkReader jsonArray(InputStream body) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(body);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a JSON array of strings");
+        }
+        // 回應在讀取期間已開始送出，之後的格式錯誤只能回報為單筆錯誤結果
+        boolean[] ended = {false};
+        return (chunk, max) -> {
+            int read = 0;
+            while (read < max && !ended[0]) {
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.END_ARRAY) {
+                        ended[0] = true;
+                    } else if (token == null) {
+                        chunk.add(EncryptionBulkService.Item.invalid("Unexpected end of input, the array is not closed"));
+                        ended[0] = true;
+                        read++;
+                    } else if (token.isStructStart()) {
+                        parser.skipChildren();
+                        chunk.add(EncryptionBulkService.Item.invalid("Expected a string but got " + (token == JsonToken.START_OBJECT ? "an object" : "an array")));
+                        read++;
+                    } else {
+                        chunk.add(EncryptionBulkService.Item.of(token == JsonToken.VALUE_NULL ? null : parser.getText()));
+                        read++;
+                    }
+                } catch (JsonProcessingException e) {
+                    chunk.add(EncryptionBulkService.Item.invalid("Malformed JSON: " + e.getOriginalMessage()));
+                    ended[0] = true;
+                    read++;
+                }
+            }
+            return read;
+        };
+    }
+
+    private static EncryptionBulkService.ChunkReader lines(InputStream body) {
+        BufferedReader lineReader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return (chunk, max) -> {
+            int read = 0;
+            String line;
+            // 空白行略過
+            while (read < max && (line = lineReader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    chunk.add(EncryptionBulkService.Item.of(line));
+                    read++;
+                }
+            }
+            return read;
+        };
+    }
+}
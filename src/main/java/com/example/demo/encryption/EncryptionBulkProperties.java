@@ -0,0 +1,17 @@
+package com.example.demo.encryption;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "encryption.bulk")
+public class EncryptionBulkProperties {
+    // 每個平行處理區塊的筆數
+    private int chunkSize = 256;
+    // 同時處理中的區塊上限
+    private int parallelism = 4;
+    // 單次請求允許的最大筆數
+    private int maxItems = 100_000;
+}
@@ -0,0 +1,15 @@
+package com.example.demo.encryption;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EncryptionBulkResult {
+    private int index;
+    private String data;
+    private String result;
+    private String error;
+}
@@ -0,0 +1,150 @@
+package com.example.demo.encryption;
+
+import com.example.demo.config.BaseLogger;
+import com.example.demo.util.EncryptionUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Encrypts or decrypts values pulled from a {@link ChunkReader} in fixed-size chunks on the shared task executor.
+ * <p>
+ * At most {@code encryption.bulk.parallelism} chunks are read ahead and in flight at a time, so memory stays
+ * bounded by {@code chunk-size * parallelism} items however large the input is; completed chunks are
+ * handed to the writer strictly in input order, so results can be streamed while later chunks run.
+ * A failing or malformed item is reported in its own result and never fails the batch. Results may already
+ * be on the wire when a problem is found, so input beyond {@code encryption.bulk.max-items} is not read and
+ * is reported as one final error result instead of failing the response.
+ */
+@Service
+public class EncryptionBulkService extends BaseLogger {
+    private final Executor taskExecutor;
+    private final EncryptionBulkProperties properties;
+
+    @Autowired
+    public EncryptionBulkService(@Qualifier("taskExecutor") Executor taskExecutor, EncryptionBulkProperties properties) {
+        this.taskExecutor = taskExecutor;
+        this.properties = properties;
+    }
+
+    public int getMaxItems() {
+        return properties.getMaxItems();
+    }
+
+    public void process(ChunkReader reader, Operation operation, ChunkWriter writer) throws IOException {
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        int parallelism = Math.max(1, properties.getParallelism());
+        Deque<CompletableFuture<List<EncryptionBulkResult>>> inFlight = new ArrayDeque<>(parallelism);
+
+        int next = 0;
+        boolean exhausted = false;
+        while (!exhausted || !inFlight.isEmpty()) {
+            while (!exhausted && inFlight.size() < parallelism) {
+                List<Item> chunk = new ArrayList<>(chunkSize);
+                if (reader.read(chunk, chunkSize) < chunkSize) {
+                    exhausted = true;
+                }
+                int from = next;
+                int allowed = Math.min(chunk.size(), Math.max(0, properties.getMaxItems() - from));
+                if (allowed > 0) {
+                    List<Item> accepted = chunk.subList(0, allowed);
+                    inFlight.add(submit(() -> apply(accepted, from, operation)));
+                    next += allowed;
+                }
+                if (allowed < chunk.size()) {
+                    // 回應可能已送出，無法改回 413；以最後一筆錯誤結果結束，其餘輸入不再讀取
+                    String error = "Too many items, max " + properties.getMaxItems() + "; the rest of the input was not processed";
+                    inFlight.add(CompletableFuture.completedFuture(List.of(new EncryptionBulkResult(next, null, null, error))));
+                    exhausted = true;
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+            }
+            if (!inFlight.isEmpty()) {
+                writer.write(inFlight.poll().join());
+            }
+        }
+    }
+
+    private CompletableFuture<List<EncryptionBulkResult>> submit(Supplier<List<EncryptionBulkResult>> chunk) {
+        try {
+            return CompletableFuture.supplyAsync(chunk, taskExecutor);
+        } catch (RejectedExecutionException e) {
+            // 執行緒池已滿時改由目前執行緒處理，避免整批失敗
+            logger.debug("bulk chunk rejected by executor, running inline");
+            return CompletableFuture.completedFuture(chunk.get());
+        }
+    }
+
+    private static List<EncryptionBulkResult> apply(List<Item> chunk, int from, Operation operation) {
+        List<EncryptionBulkResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            String data = chunk.get(i).data();
+            if (chunk.get(i).error() != null) {
+                results.add(new EncryptionBulkResult(from + i, data, null, chunk.get(i).error()));
+                continue;
+            }
+            try {
+                results.add(new EncryptionBulkResult(from + i, data, operation.apply(data), null));
+            } catch (Exception e) {
+                results.add(new EncryptionBulkResult(from + i, data, null, e.getClass().getSimpleName() + ": " + e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    public enum Operation {
+        ENCRYPT {
+            @Override
+            String apply(String data) throws Exception {
+                return EncryptionUtil.encrypt(data);
+            }
+        },
+        DECRYPT {
+            @Override
+            String apply(String data) throws Exception {
+                return EncryptionUtil.decrypt(data);
+            }
+        };
+
+        abstract String apply(String data) throws Exception;
+    }
+
+    /**
+     * One input value, or the reason it could not be read.
+     */
+    public record Item(String data, String error) {
+        public static Item of(String data) {
+            return new Item(data, null);
+        }
+
+        public static Item invalid(String error) {
+            return new Item(null, error);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ChunkReader {
+        /**
+         * Appends up to {@code max} items to {@code chunk}, returning how many were added;
+         * fewer than {@code max} means the input is exhausted.
+         */
+        int read(List<Item> chunk, int max) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface ChunkWriter {
+        void write(List<EncryptionBulkResult> results) throws IOException;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.history;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.history.mapped")
+public class MappedHistoryProperties {
+    // 是否將每次匯率寫入 memory-mapped 欄位檔
+    private boolean enabled = false;
+    // 欄位檔存放目錄，每個幣別兩個檔案 (<code>.ts / <code>.rate)
+    private String directory = "data/rate-history";
+    // 檔案每次擴充的筆數
+    private int growthRecords = 65_536;
+}
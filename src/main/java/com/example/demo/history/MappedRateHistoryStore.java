@@ -0,0 +1,126 @@
+package com.example.demo.history;
+
+import com.example.demo.config.BaseLogger;
+import com.example.demo.currency.CurrencyEntity;
+import com.example.demo.currency.ScaledRate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Per-currency {@link MappedRateSeries} files under {@code currency.history.mapped.directory}.
+ * <p>
+ * Existing series are re-mapped at startup without reading their contents; pages are loaded by the
+ * OS on first access, so reopening years of history is immediate.
+ */
+@Component
+public class MappedRateHistoryStore extends BaseLogger {
+    private static final Pattern VALID_CODE = Pattern.compile("[A-Za-z0-9_-]{1,16}");
+
+    private final MappedHistoryProperties properties;
+    private final Map<String, MappedRateSeries> series = new ConcurrentHashMap<>();
+    private Path directory;
+
+    @Autowired
+    public MappedRateHistoryStore(MappedHistoryProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        directory = Paths.get(properties.getDirectory());
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + MappedRateSeries.TIMESTAMP_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String code = name.substring(0, name.length() - MappedRateSeries.TIMESTAMP_SUFFIX.length());
+                if (VALID_CODE.matcher(code).matches()) {
+                    series.put(code, new MappedRateSeries(directory, code, properties.getGrowthRecords()));
+                }
+            }
+        }
+        logger.debug("reopened {} mapped rate series from {}", series.size(), directory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void close() {
+        series.values().forEach(s -> {
+            try {
+                s.close();
+            } catch (IOException e) {
+                logger.warn("unable to close mapped rate series: {}", e.getMessage());
+            }
+        });
+        series.clear();
+    }
+
+    public void append(Collection<CurrencyEntity> entities) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (CurrencyEntity entity : entities) {
+            if (entity.getScaledRate() == ScaledRate.NONE || entity.getUpdated() == null || !VALID_CODE.matcher(entity.getCode()).matches()) {
+                continue;
+            }
+            try {
+                seriesFor(entity.getCode()).append(entity.getUpdated().getTime(), entity.getScaledRate());
+            } catch (IOException e) {
+                logger.warn("unable to append {} to mapped history: {}", entity.getCode(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ticks of {@code code} within {@code [from, to)}, at most {@code limit} of them.
+     * The scan reads the mapped columns in place; only the returned DTOs are allocated.
+     */
+    public List<RateTickDTO> range(String code, Instant from, Instant to, int limit) {
+        MappedRateSeries rateSeries = series.get(code);
+        if (rateSeries == null) {
+            return List.of();
+        }
+        MappedRateSeries.View view = rateSeries.view();
+        long end = to.toEpochMilli();
+        List<RateTickDTO> ticks = new ArrayList<>();
+        for (int i = view.lowerBound(from.toEpochMilli()); i < view.count() && ticks.size() < limit; i++) {
+            long timestamp = view.timestamp(i);
+            if (timestamp >= end) {
+                break;
+            }
+            ticks.add(new RateTickDTO(Instant.ofEpochMilli(timestamp), ScaledRate.toBigDecimal(view.scaledRate(i))));
+        }
+        return ticks;
+    }
+
+    private MappedRateSeries seriesFor(String code) {
+        return series.computeIfAbsent(code, c -> {
+            try {
+                return new MappedRateSeries(directory, c, properties.getGrowthRecords());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
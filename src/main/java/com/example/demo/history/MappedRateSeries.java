@@ -0,0 +1,163 @@
+package com.example.demo.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only tick series of one currency, stored as two memory-mapped columns of fixed-width longs:
+ * {@code <code>.ts} (epoch millis) and {@code <code>.rate} (rate scaled to 4 decimals).
+ * <p>
+ * Each file starts with a 16 byte header (magic, format version, record count) followed by the values.
+ * Timestamps are kept strictly increasing so range reads can binary search the timestamp column.
+ * Appends are serialized; readers work on an immutable {@link View} and never lock or copy.
+ * A single file holds at most {@code (Integer.MAX_VALUE - HEADER_BYTES) / 8} records (~268 million).
+ */
+public class MappedRateSeries implements Closeable {
+    static final String TIMESTAMP_SUFFIX = ".ts";
+    static final String RATE_SUFFIX = ".rate";
+
+    private static final int MAGIC = 0x52415445; // "RATE"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final long MAX_RECORDS = (Integer.MAX_VALUE - HEADER_BYTES) / Long.BYTES;
+
+    private final FileChannel timestampChannel;
+    private final FileChannel rateChannel;
+    private final int growthRecords;
+    private volatile View view;
+
+    public MappedRateSeries(Path directory, String code, int growthRecords) throws IOException {
+        this.growthRecords = growthRecords;
+        this.timestampChannel = open(directory.resolve(code + TIMESTAMP_SUFFIX));
+        this.rateChannel = open(directory.resolve(code + RATE_SUFFIX));
+
+        long existing = Math.min(recordsIn(timestampChannel), recordsIn(rateChannel));
+        long capacity = Math.max(existing, growthRecords);
+        MappedByteBuffer timestamps = map(timestampChannel, capacity);
+        MappedByteBuffer rates = map(rateChannel, capacity);
+        int count = (int) Math.min(readCount(timestamps), readCount(rates));
+        this.view = new View(timestamps, rates, count, (int) capacity);
+    }
+
+    /**
+     * @return false if the tick is not newer than the last stored tick and was skipped
+     */
+    public synchronized boolean append(long epochMillis, long scaledRate) throws IOException {
+        View current = view;
+        if (current.count > 0 && epochMillis <= current.timestamp(current.count - 1)) {
+            return false;
+        }
+        if (current.count == current.capacity) {
+            current = grow(current);
+        }
+        int index = current.count;
+        current.rates.putLong(HEADER_BYTES + index * Long.BYTES, scaledRate);
+        current.timestamps.putLong(HEADER_BYTES + index * Long.BYTES, epochMillis);
+        current.rates.putLong(COUNT_OFFSET, index + 1L);
+        current.timestamps.putLong(COUNT_OFFSET, index + 1L);
+        view = new View(current.timestamps, current.rates, index + 1, current.capacity);
+        return true;
+    }
+
+    public View view() {
+        return view;
+    }
+
+    public synchronized void force() {
+        view.timestamps.force();
+        view.rates.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        timestampChannel.close();
+        rateChannel.close();
+    }
+
+    private View grow(View current) throws IOException {
+        long capacity = Math.min(MAX_RECORDS, (long) current.capacity + growthRecords);
+        if (capacity <= current.capacity) {
+            throw new IOException("rate series is full");
+        }
+        return new View(map(timestampChannel, capacity), map(rateChannel, capacity), current.count, (int) capacity);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static long recordsIn(FileChannel channel) throws IOException {
+        return Math.max(0, (channel.size() - HEADER_BYTES) / Long.BYTES);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long capacity) throws IOException {
+        boolean created = channel.size() < HEADER_BYTES;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + capacity * Long.BYTES);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (created) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            buffer.putLong(COUNT_OFFSET, 0);
+        } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("not a rate history column");
+        }
+        return buffer;
+    }
+
+    private static long readCount(MappedByteBuffer buffer) {
+        return buffer.getLong(COUNT_OFFSET);
+    }
+
+    /**
+     * Consistent, immutable view of the first {@code count} records.
+     */
+    public static final class View {
+        private final MappedByteBuffer timestamps;
+        private final MappedByteBuffer rates;
+        private final int count;
+        private final int capacity;
+
+        private View(MappedByteBuffer timestamps, MappedByteBuffer rates, int count, int capacity) {
+            this.timestamps = timestamps;
+            this.rates = rates;
+            this.count = count;
+            this.capacity = capacity;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public long timestamp(int index) {
+            return timestamps.getLong(HEADER_BYTES + index * Long.BYTES);
+        }
+
+        public long scaledRate(int index) {
+            return rates.getLong(HEADER_BYTES + index * Long.BYTES);
+        }
+
+        /**
+         * Index of the first record with a timestamp {@code >= epochMillis}, or {@link #count()} if there is none.
+         */
+        public int lowerBound(long epochMillis) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestamp(mid) < epochMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.history;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Folds time-ordered ticks into OHLC buckets aligned to multiples of {@code stepMillis} since the epoch.
+ * Empty buckets are not emitted.
+ */
+public class OhlcAggregator {
+    private final long stepMillis;
+    private final List<OhlcBucketDTO> buckets = new ArrayList<>();
+
+    private long bucketStart = Long.MIN_VALUE;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+    private int count;
+
+    public OhlcAggregator(long stepMillis) {
+        if (stepMillis <= 0) {
+            throw new IllegalArgumentException("step must be positive");
+        }
+        this.stepMillis = stepMillis;
+    }
+
+    public void add(long epochMillis, BigDecimal rate) {
+        if (rate == null) {
+            return;
+        }
+        long start = Math.floorDiv(epochMillis, stepMillis) * stepMillis;
+        if (start != bucketStart) {
+            flush();
+            bucketStart = start;
+            open = rate;
+            high = rate;
+            low = rate;
+            count = 0;
+        }
+        if (rate.compareTo(high) > 0) {
+            high = rate;
+        }
+        if (rate.compareTo(low) < 0) {
+            low = rate;
+        }
+        close = rate;
+        count++;
+    }
+
+    public List<OhlcBucketDTO> finish() {
+        flush();
+        return buckets;
+    }
+
+    private void flush() {
+        if (count > 0) {
+            buckets.add(new OhlcBucketDTO(Instant.ofEpochMilli(bucketStart), open, high, low, close, count));
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.history;
+
+import com.example.demo.config.BaseLogger;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/currency")
+public class RateHistoryController extends BaseLogger {
+    private static final long MAX_BUCKETS = 10_000;
+    private static final int MAX_TICKS = 100_000;
+
+    @Autowired
+    private RateHistoryService rateHistoryService;
+
+    @Autowired
+    private MappedRateHistoryStore mappedRateHistoryStore;
+
+    @Async
+    @GetMapping("/{code}/history")
+    @Operation(description = "Get OHLC buckets of the ingested rate history of a Currency")
+    public CompletableFuture<List<OhlcBucketDTO>> getHistory(
+            @PathVariable String code,
+            @Parameter(description = "Range start (inclusive), ISO-8601 instant, defaults to one day before 'to'")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Range end (exclusive), ISO-8601 instant, defaults to now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Bucket size, e.g. 15m, 1h, 1d or PT1H")
+            @RequestParam(defaultValue = "1h") String step) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(1));
+        Duration bucket;
+        try {
+            bucket = DurationStyle.detectAndParse(step);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid step");
+        }
+
+        if (!start.isBefore(end) || bucket.toMillis() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid range");
+        }
+        if (Duration.between(start, end).toMillis() / bucket.toMillis() > MAX_BUCKETS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Too many buckets, increase step");
+        }
+        return CompletableFuture.completedFuture(rateHistoryService.ohlc(code, start, end, bucket));
+    }
+
+    @Async
+    @GetMapping("/{code}/history/ticks")
+    @Operation(description = "Get raw ticks of a Currency from the memory-mapped history files")
+    public CompletableFuture<List<RateTickDTO>> getTicks(
+            @PathVariable String code,
+            @Parameter(description = "Range start (inclusive), ISO-8601 instant, defaults to one day before 'to'")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Range end (exclusive), ISO-8601 instant, defaults to now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Maximum number of ticks returned")
+            @RequestParam(defaultValue = "10000") int limit) {
+        if (!mappedRateHistoryStore.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Mapped history is disabled");
+        }
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(1));
+        if (!start.isBefore(end) || limit <= 0 || limit > MAX_TICKS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid range");
+        }
+        return CompletableFuture.completedFuture(mappedRateHistoryStore.range(code, start, end, limit));
+    }
+}
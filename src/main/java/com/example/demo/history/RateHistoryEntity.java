@@ -0,0 +1,30 @@
+package com.example.demo.history;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * One ingested rate. Rows are only ever inserted; the (code, recorded_at) index keeps each
+ * currency's points contiguous and ordered so range queries never scan other currencies or times.
+ */
+@Entity
+@Table(name = "bitcoin_exchange_rate_history",
+        indexes = @Index(name = "idx_rate_history_code_recorded_at", columnList = "code, recorded_at"))
+@Getter
+@Setter
+public class RateHistoryEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bitcoin_exchange_rate_history_seq")
+    @SequenceGenerator(name = "bitcoin_exchange_rate_history_seq", sequenceName = "bitcoin_exchange_rate_history_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "code", nullable = false)
+    private String code;
+    @Column(name = "recorded_at", nullable = false)
+    private Timestamp recordedAt;
+    @Column(name = "rate_float", precision = 19, scale = 4)
+    private BigDecimal rateFloat;
+}
@@ -0,0 +1,22 @@
+package com.example.demo.history;
+
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface RateHistoryRepository extends JpaRepository<RateHistoryEntity, Long> {
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<RateTick> findByCodeAndRecordedAtGreaterThanEqualAndRecordedAtLessThanOrderByRecordedAtAsc(String code, Timestamp from, Timestamp to);
+}
@@ -0,0 +1,54 @@
+package com.example.demo.history;
+
+import com.example.demo.currency.CurrencyEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+public class RateHistoryService {
+    private final RateHistoryRepository rateHistoryRepository;
+
+    @Autowired
+    public RateHistoryService(RateHistoryRepository rateHistoryRepository) {
+        this.rateHistoryRepository = rateHistoryRepository;
+    }
+
+    /**
+     * Appends the current rate of each entity; joins the caller's transaction when there is one.
+     */
+    @Transactional
+    public void record(Collection<CurrencyEntity> entities) {
+        List<RateHistoryEntity> rows = entities.stream()
+                .map(entity -> {
+                    RateHistoryEntity row = new RateHistoryEntity();
+                    row.setCode(entity.getCode());
+                    row.setRecordedAt(entity.getUpdated());
+                    row.setRateFloat(entity.getRateFloat());
+                    return row;
+                })
+                .toList();
+        rateHistoryRepository.saveAll(rows);
+    }
+
+    /**
+     * OHLC buckets for {@code [from, to)}; the range is read through the (code, recorded_at) index and streamed,
+     * so memory is bounded by the number of buckets rather than the number of ticks.
+     */
+    @Transactional(readOnly = true)
+    public List<OhlcBucketDTO> ohlc(String code, Instant from, Instant to, Duration step) {
+        OhlcAggregator aggregator = new OhlcAggregator(step.toMillis());
+        try (Stream<RateTick> ticks = rateHistoryRepository.findByCodeAndRecordedAtGreaterThanEqualAndRecordedAtLessThanOrderByRecordedAtAsc(
+                code, Timestamp.from(from), Timestamp.from(to))) {
+            ticks.forEach(tick -> aggregator.add(tick.getRecordedAt().getTime(), tick.getRateFloat()));
+        }
+        return aggregator.finish();
+    }
+}
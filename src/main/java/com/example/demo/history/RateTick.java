@@ -0,0 +1,13 @@
+package com.example.demo.history;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Projection used by range queries so only the two needed columns are selected.
+ */
+public interface RateTick {
+    Timestamp getRecordedAt();
+
+    BigDecimal getRateFloat();
+}
@@ -0,0 +1,14 @@
+package com.example.demo.history;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class RateTickDTO {
+    private Instant timestamp;
+    private BigDecimal rate;
+}
@@ -0,0 +1,12 @@
+package com.example.demo.provider;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of one fan-out round: the merged rate per currency, the newest provider timestamp and the
+ * provider results it was built from.
+ */
+public record AggregatedRates(Map<String, Long> rates, Instant updated, List<ProviderRates> sources) {
+}
@@ -0,0 +1,13 @@
+package com.example.demo.provider;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Rates returned by one {@link RateProvider} in a single fetch.
+ *
+ * @param changed {@code false} when the provider re-reports rates it has already handed out and that
+ *                have since been stored
+ */
+public record ProviderRates(String provider, Instant updated, Map<String, RateQuote> quotes, boolean changed) {
+}
@@ -0,0 +1,72 @@
+package com.example.demo.provider;
+
+import com.example.demo.config.BaseLogger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fetches every {@link RateProvider} concurrently and merges the results with {@link RateAggregator}.
+ * <p>
+ * Each provider gets its own deadline from {@link RateProviderProperties}; a provider that fails or
+ * misses it is left out of the round instead of holding it up. The round completes empty when no
+ * provider reports a change, and fails when fewer than {@code minProviders} responded.
+ */
+@Service
+public class RateAggregationService extends BaseLogger {
+    private final List<RateProvider> providers;
+    private final RateProviderProperties properties;
+
+    @Autowired
+    public RateAggregationService(List<RateProvider> providers, RateProviderProperties properties) {
+        this.providers = List.copyOf(providers);
+        this.properties = properties;
+    }
+
+    public Mono<AggregatedRates> aggregate() {
+        return Flux.fromIterable(providers)
+                .flatMap(this::fetch, Math.max(1, providers.size()))
+                .collectList()
+                .flatMap(results -> {
+                    if (results.isEmpty() || results.size() < properties.getMinProviders()) {
+                        return Mono.error(new IllegalStateException(
+                                "Only " + results.size() + " of " + providers.size() + " rate providers responded"));
+                    }
+                    if (results.stream().noneMatch(ProviderRates::changed)) {
+                        return Mono.empty();
+                    }
+                    Instant updated = results.stream()
+                            .map(ProviderRates::updated)
+                            .max(Comparator.naturalOrder())
+                            .orElseGet(Instant::now);
+                    return Mono.just(new AggregatedRates(RateAggregator.aggregate(results, properties.getStrategy()), updated, results));
+                });
+    }
+
+    /**
+     * Lets the providers behind a stored round advance their own state, e.g. conditional-request validators.
+     */
+    public void onStored(AggregatedRates aggregated) {
+        for (ProviderRates source : aggregated.sources()) {
+            for (RateProvider provider : providers) {
+                if (provider.name().equals(source.provider())) {
+                    provider.onStored(source);
+                }
+            }
+        }
+    }
+
+    private Mono<ProviderRates> fetch(RateProvider provider) {
+        return Mono.defer(provider::fetch)
+                .timeout(properties.deadlineOf(provider.name()))
+                .onErrorResume(e -> {
+                    logger.warn("rate provider {} left out of this round: {}", provider.name(), e.toString());
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.provider;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Merges the quotes of several providers into one rate per currency.
+ * <p>
+ * {@link Strategy#MEDIAN} takes the median of the quoted rates, averaging the two middle values for an
+ * even count. {@link Strategy#VOLUME_WEIGHTED} weights each rate by its volume, and falls back to the
+ * median for a currency where any quote carries no volume.
+ */
+public final class RateAggregator {
+    public enum Strategy { MEDIAN, VOLUME_WEIGHTED }
+
+    private RateAggregator() {
+    }
+
+    public static Map<String, Long> aggregate(Collection<ProviderRates> results, Strategy strategy) {
+        Map<String, List<RateQuote>> quotesByCode = new TreeMap<>();
+        for (ProviderRates result : results) {
+            for (RateQuote quote : result.quotes().values()) {
+                quotesByCode.computeIfAbsent(quote.code(), code -> new ArrayList<>(results.size())).add(quote);
+            }
+        }
+
+        Map<String, Long> rates = new LinkedHashMap<>(quotesByCode.size() * 2);
+        quotesByCode.forEach((code, quotes) -> rates.put(code,
+                strategy == Strategy.VOLUME_WEIGHTED && hasVolume(quotes) ? volumeWeighted(quotes) : median(quotes)));
+        return rates;
+    }
+
+    static long median(List<RateQuote> quotes) {
+        long[] values = new long[quotes.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = quotes.get(i).scaledRate();
+        }
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        if (values.length % 2 == 1) {
+            return values[middle];
+        }
+        long low = values[middle - 1];
+        long high = values[middle];
+        // 避免相加溢位
+        return low + (high - low) / 2;
+    }
+
+    static long volumeWeighted(List<RateQuote> quotes) {
+        BigInteger weightedSum = BigInteger.ZERO;
+        BigInteger totalVolume = BigInteger.ZERO;
+        for (RateQuote quote : quotes) {
+            BigInteger volume = BigInteger.valueOf(quote.volume());
+            weightedSum = weightedSum.add(BigInteger.valueOf(quote.scaledRate()).multiply(volume));
+            totalVolume = totalVolume.add(volume);
+        }
+        // 四捨五入到最接近的 ScaledRate 單位
+        return weightedSum.add(totalVolume.shiftRight(1)).divide(totalVolume).longValueExact();
+    }
+
+    private static boolean hasVolume(List<RateQuote> quotes) {
+        for (RateQuote quote : quotes) {
+            if (quote.volume() <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
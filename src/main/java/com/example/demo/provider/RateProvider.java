@@ -0,0 +1,26 @@
+package com.example.demo.provider;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A source of currency rates taking part in {@link RateAggregationService}'s fan-out.
+ */
+public interface RateProvider {
+
+    /**
+     * Name used in logs and as the key of {@code currency.providers.deadlines}.
+     */
+    String name();
+
+    /**
+     * Fetches the latest rates without blocking; an error or an empty result excludes this
+     * provider from the current round only.
+     */
+    Mono<ProviderRates> fetch();
+
+    /**
+     * Called after rates this provider contributed to have been stored.
+     */
+    default void onStored(ProviderRates rates) {
+    }
+}
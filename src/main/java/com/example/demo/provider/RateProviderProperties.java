@@ -0,0 +1,26 @@
+package com.example.demo.provider;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.providers")
+public class RateProviderProperties {
+    // 未個別設定的供應商的回應期限，逾時的供應商不參與本次彙整
+    private Duration defaultDeadline = Duration.ofSeconds(10);
+    // 依供應商名稱個別設定的期限
+    private Map<String, Duration> deadlines = new HashMap<>();
+    private RateAggregator.Strategy strategy = RateAggregator.Strategy.MEDIAN;
+    // 至少要有幾個供應商回應才發布
+    private int minProviders = 1;
+
+    public Duration deadlineOf(String provider) {
+        return deadlines.getOrDefault(provider, defaultDeadline);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.provider;
+
+/**
+ * One provider's rate for one currency, as a {@link com.example.demo.currency.ScaledRate} value.
+ * {@code volume} is the traded volume behind the rate, or {@code 0} when the source does not report one.
+ */
+public record RateQuote(String code, long scaledRate, long volume) {
+}
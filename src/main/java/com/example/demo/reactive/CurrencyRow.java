@@ -0,0 +1,21 @@
+package com.example.demo.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only R2DBC view of a {@code bitcoin_exchange_rate} row; the table itself is owned by
+ * {@link com.example.demo.currency.CurrencyEntity}.
+ */
+@Table("bitcoin_exchange_rate")
+public record CurrencyRow(
+        @Id Long id,
+        @Column("updated") LocalDateTime updated,
+        @Column("code") String code,
+        @Column("currency_name_cn") String currencyNameCN,
+        @Column("rate_float") BigDecimal rateFloat) {
+}
@@ -0,0 +1,54 @@
+package com.example.demo.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+/**
+ * R2DBC and Netty setup of the {@code reactive} profile.
+ * <p>
+ * Spring Boot's R2DBC auto-configuration is excluded in {@code application.properties}: its reactive
+ * transaction manager would otherwise replace the JPA one that the write paths rely on. Only the read-only
+ * repository used by {@link ReactiveCurrencyController} is configured here.
+ */
+@Configuration
+@Profile("reactive")
+@EnableR2dbcRepositories(basePackageClasses = ReactiveCurrencyRepository.class)
+public class ReactiveConfig extends AbstractR2dbcConfiguration {
+    @Autowired
+    private ReactiveProperties reactiveProperties;
+
+    @Bean(destroyMethod = "dispose")
+    public ReactiveConnectionPool reactiveConnectionPool() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(reactiveProperties.getR2dbcUrl()).mutate()
+                .option(ConnectionFactoryOptions.USER, reactiveProperties.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, reactiveProperties.getPassword())
+                .build();
+        return new ReactiveConnectionPool(new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(reactiveProperties.getMaxPoolSize())
+                .build()));
+    }
+
+    /**
+     * Not a bean, see {@link ReactiveConnectionPool}.
+     */
+    @Override
+    public ConnectionFactory connectionFactory() {
+        return reactiveConnectionPool().connectionFactory();
+    }
+
+    // Tomcat 也在 classpath 上，明確指定 Netty 讓請求跑在 event loop 上
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
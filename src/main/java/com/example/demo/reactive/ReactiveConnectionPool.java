@@ -0,0 +1,25 @@
+package com.example.demo.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * Owns the R2DBC {@link ConnectionPool} of the {@code reactive} profile, so the container disposes it on
+ * shutdown. The pool itself is deliberately not a bean: Spring Boot's DataSource auto-configuration backs
+ * off as soon as a {@link ConnectionFactory} bean exists, which would take JPA down with it.
+ */
+public class ReactiveConnectionPool {
+    private final ConnectionPool connectionPool;
+
+    public ReactiveConnectionPool(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    public ConnectionFactory connectionFactory() {
+        return connectionPool;
+    }
+
+    public void dispose() {
+        connectionPool.dispose();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.reactive;
+
+import com.example.demo.config.BaseLogger;
+import com.example.demo.currency.CurrencyDTO;
+import com.example.demo.currency.CurrencyListSnapshot;
+import com.example.demo.currency.CurrencyListSnapshots;
+import com.example.demo.currency.EncryptedCodeResolver;
+import com.example.demo.currency.SupportedLocales;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.sql.Timestamp;
+import java.util.Locale;
+
+/**
+ * Non-blocking counterpart of the read endpoints of {@link com.example.demo.currency.CurrencyController},
+ * served from the Netty event loop instead of {@code @Async}. The list is the same {@link CurrencyListSnapshots}
+ * snapshot the servlet endpoint serves, so both do the same work per request; a single currency is read
+ * with R2DBC. Rebuilding a stale snapshot and decrypting an unknown code block, so they run on
+ * {@link Schedulers#boundedElastic()}.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/reactive/currency")
+public class ReactiveCurrencyController extends BaseLogger {
+    @Autowired
+    private ReactiveCurrencyRepository reactiveCurrencyRepository;
+    @Autowired
+    private CurrencyListSnapshots currencyListSnapshots;
+    @Autowired
+    private EncryptedCodeResolver encryptedCodeResolver;
+    @Autowired
+    private MessageSource messageSource;
+
+    @GetMapping
+    @Operation(description = "Get All Currency Information without blocking")
+    public Mono<ResponseEntity<byte[]>> getAllCurrency(
+            @Parameter(description = "Language for the response", required = false)
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Locale locale = resolveLocale(acceptLanguage);
+        CurrencyListSnapshot current = currencyListSnapshots.peek(locale, direction);
+        // 快照過期時重建可能經由 JPA 讀取資料庫，不可在 event loop 上執行
+        Mono<CurrencyListSnapshot> snapshot = current != null ? Mono.just(current)
+                : Mono.fromCallable(() -> currencyListSnapshots.get(locale, direction, languageMessage(locale)))
+                .subscribeOn(Schedulers.boundedElastic());
+        return snapshot.map(listSnapshot -> toResponse(listSnapshot, ifNoneMatch));
+    }
+
+    @GetMapping("/{encryptCode}")
+    @Operation(description = "Get specific Currency Information without blocking")
+    public Mono<CurrencyDTO> findCurrency(
+            @Parameter(description = "Language for the response", required = false)
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage,
+            @PathVariable String encryptCode) {
+        // 未快取的代碼需要 AES 解密，移出 event loop
+        return Mono.fromCallable(() -> encryptedCodeResolver.resolve(encryptCode))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(reactiveCurrencyRepository::findByCode)
+                .map(row -> toDTO(row, languageMessage(resolveLocale(acceptLanguage))))
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Currency not found")));
+    }
+
+    private static ResponseEntity<byte[]> toResponse(CurrencyListSnapshot snapshot, String ifNoneMatch) {
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .varyBy(HttpHeaders.ACCEPT_LANGUAGE)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.etag())
+                .varyBy(HttpHeaders.ACCEPT_LANGUAGE)
+                .body(snapshot.json());
+    }
+
+    private static CurrencyDTO toDTO(CurrencyRow row, String language) {
+        CurrencyDTO dto = new CurrencyDTO();
+        dto.setCode(row.code());
+        dto.setCurrencyNameCN(row.currencyNameCN());
+        dto.setRateFloat(row.rateFloat());
+        dto.setUpdated(row.updated() != null ? Timestamp.valueOf(row.updated()) : null);
+        dto.setLanguage(language);
+        return dto;
+    }
+
+    private Locale resolveLocale(String acceptLanguage) {
+        // 與 Servlet 端點回應相同的語系
+        return SupportedLocales.resolve(acceptLanguage);
+    }
+
+    private String languageMessage(Locale locale) {
+        return messageSource.getMessage("language", new Object[]{locale.getDisplayLanguage(locale)}, locale);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.reactive;
+
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCurrencyRepository extends ReactiveSortingRepository<CurrencyRow, Long> {
+    Mono<CurrencyRow> findByCode(String code);
+}
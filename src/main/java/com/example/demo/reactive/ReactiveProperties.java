@@ -0,0 +1,16 @@
+package com.example.demo.reactive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.reactive")
+public class ReactiveProperties {
+    // 與 JPA 共用同一個 in-memory H2 資料庫 (jdbc:h2:mem:testdb)
+    private String r2dbcUrl = "r2dbc:h2:mem:///testdb?options=DB_CLOSE_DELAY=-1";
+    private String username = "sa";
+    private String password = "";
+    private int maxPoolSize = 16;
+}
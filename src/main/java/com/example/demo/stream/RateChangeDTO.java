@@ -0,0 +1,15 @@
+package com.example.demo.stream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class RateChangeDTO {
+    private String code;
+    // 幣別被刪除時為 null
+    private BigDecimal rateFloat;
+    private boolean removed;
+}
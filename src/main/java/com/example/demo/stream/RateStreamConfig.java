@@ -0,0 +1,28 @@
+package com.example.demo.stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// SSE 端點以 SseEmitter 實作，只在 Servlet 模式下提供
+@Configuration
+@Profile("!reactive")
+public class RateStreamConfig {
+    @Autowired
+    private RateStreamProperties rateStreamProperties;
+
+    // 只供 RateStreamController 寫出 SSE，不影響其他非同步請求
+    @Bean(name = "streamWriterExecutor")
+    public ThreadPoolTaskExecutor streamWriterExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(rateStreamProperties.getWriterThreads());
+        executor.setMaxPoolSize(rateStreamProperties.getWriterThreads());
+        // 每個訂閱者同時最多只有一個待寫出的事件
+        executor.setQueueCapacity(Math.max(1_000, rateStreamProperties.getMaxSubscribers()));
+        executor.setThreadNamePrefix("rate-stream-");
+        executor.initialize();
+        return executor;
+    }
+}
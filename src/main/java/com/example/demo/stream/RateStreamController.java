@@ -0,0 +1,133 @@
+package com.example.demo.stream;
+
+import com.example.demo.config.BaseLogger;
+import io.swagger.v3.oas.annotations.Operation;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Writes {@link RateStreamService} streams through {@link SseEmitter} on the {@code streamWriterExecutor}
+ * pool, one event at a time, so a slow client only ever holds one event in flight and the rest coalesce
+ * in the service. Spring MVC's global async executor is left untouched.
+ * <p>
+ * Servlet writes block, so a client that stops reading holds a writer thread once its TCP window is full.
+ * Tomcat bounds every blocking write by {@code server.tomcat.connection-timeout}; past it the write fails,
+ * the stream is closed and both the thread and the subscriber slot are released. A thread blocked in a
+ * write cannot be freed any sooner, so {@code writer-threads} stalled clients can delay every other
+ * subscriber by up to that timeout; size both settings for the number of misbehaving clients to tolerate.
+ * Idle subscribers hold no thread.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/currency")
+public class RateStreamController extends BaseLogger {
+    @Autowired
+    private RateStreamService rateStreamService;
+    @Autowired
+    private RateStreamProperties rateStreamProperties;
+    @Autowired
+    @Qualifier("streamWriterExecutor")
+    private Executor streamWriterExecutor;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(description = "Stream the current rates followed by every change as Server-Sent Events")
+    public SseEmitter stream() {
+        // 明確設定逾時，否則閒置的訂閱會在容器預設的非同步逾時後被關閉
+        SseEmitter emitter = new SseEmitter(rateStreamProperties.getTimeout().toMillis());
+        EmitterSubscriber subscriber = new EmitterSubscriber(emitter);
+        try {
+            rateStreamService.subscribe().subscribe(subscriber);
+        } catch (RateStreamService.SubscriberLimitException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        // 連線結束、逾時或錯誤時取消訂閱，釋放名額
+        emitter.onCompletion(subscriber::dispose);
+        emitter.onTimeout(subscriber::dispose);
+        emitter.onError(e -> subscriber.dispose());
+        return emitter;
+    }
+
+    private final class EmitterSubscriber extends BaseSubscriber<ServerSentEvent<RateChangeDTO>> {
+        private final SseEmitter emitter;
+
+        EmitterSubscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+        }
+
+        @Override
+        protected void hookOnNext(ServerSentEvent<RateChangeDTO> event) {
+            try {
+                streamWriterExecutor.execute(() -> write(event));
+            } catch (RejectedExecutionException e) {
+                fail(e);
+            }
+        }
+
+        private void write(ServerSentEvent<RateChangeDTO> event) {
+            if (isDisposed()) {
+                return;
+            }
+            try {
+                // 客戶端停止讀取時會阻塞，直到 Tomcat 的寫出逾時
+                emitter.send(toEvent(event));
+            } catch (IOException | IllegalStateException e) {
+                // 客戶端已斷線或寫出逾時
+                fail(e);
+                return;
+            }
+            request(1);
+        }
+
+        private void fail(Exception e) {
+            if (!isDisposed()) {
+                logger.debug("closing SSE stream: {}", e.toString());
+                dispose();
+                emitter.completeWithError(e);
+            }
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            emitter.complete();
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            emitter.completeWithError(throwable);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(ServerSentEvent<RateChangeDTO> event) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (event.comment() != null) {
+            builder.comment(event.comment());
+        }
+        if (event.event() != null) {
+            builder.name(event.event());
+        }
+        if (event.data() != null) {
+            builder.data(event.data(), MediaType.APPLICATION_JSON);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.stream;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "currency.stream")
+public class RateStreamProperties {
+    // 心跳間隔，讓代理伺服器不會關閉閒置連線
+    private Duration heartbeat = Duration.ofSeconds(15);
+    // 同時訂閱數上限，超過時回應 503
+    private int maxSubscribers = 20_000;
+    // SSE 連線逾時，0 表示不逾時；未設定時會套用容器預設的非同步逾時 (約 30 秒)
+    private Duration timeout = Duration.ZERO;
+    // 寫出 SSE 的執行緒數
+    private int writerThreads = 4;
+}
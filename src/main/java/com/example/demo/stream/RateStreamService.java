@@ -0,0 +1,175 @@
+package com.example.demo.stream;
+
+import com.example.demo.config.BaseLogger;
+import com.example.demo.currency.CurrencyRatesChangedEvent;
+import com.example.demo.currency.ScaledRate;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans {@link CurrencyRatesChangedEvent}s out to SSE subscribers as per-code deltas.
+ * <p>
+ * Each subscriber first receives the current rate of every code, then only changes. Deltas waiting for
+ * a slow subscriber are coalesced by code, so a subscriber that falls behind holds at most one pending
+ * delta per currency and always catches up to the latest rate. Idle subscribers hold no thread; a single
+ * shared timer emits heartbeats for all of them.
+ */
+@Service
+public class RateStreamService extends BaseLogger {
+    private static final ServerSentEvent<RateChangeDTO> HEARTBEAT = ServerSentEvent.<RateChangeDTO>builder().comment("heartbeat").build();
+
+    private final RateStreamProperties properties;
+    private final Sinks.Many<RateChangeDTO> changes = Sinks.many().multicast().directBestEffort();
+    private final Scheduler heartbeatScheduler = Schedulers.newSingle("rate-stream-heartbeat");
+    private final Flux<ServerSentEvent<RateChangeDTO>> heartbeats;
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    // 目前各幣別的匯率，只在 synchronized 區塊中存取
+    private final Map<String, Long> currentRates = new HashMap<>();
+
+    @Autowired
+    public RateStreamService(RateStreamProperties properties) {
+        this.properties = properties;
+        this.heartbeats = Flux.interval(properties.getHeartbeat(), properties.getHeartbeat(), heartbeatScheduler)
+                .map(tick -> HEARTBEAT)
+                .share();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    /**
+     * Reserves a subscriber slot and returns the stream. The slot is released when the stream completes,
+     * fails or is cancelled, so the caller must subscribe to it.
+     *
+     * @throws SubscriberLimitException if {@code currency.stream.max-subscribers} streams are already open
+     */
+    public Flux<ServerSentEvent<RateChangeDTO>> subscribe() {
+        // 以 CAS 保留名額，同時連入的客戶端不會超過上限
+        int current;
+        do {
+            current = subscribers.get();
+            if (current >= properties.getMaxSubscribers()) {
+                throw new SubscriberLimitException();
+            }
+        } while (!subscribers.compareAndSet(current, current + 1));
+
+        AtomicBoolean released = new AtomicBoolean();
+        Flux<ServerSentEvent<RateChangeDTO>> deltas = Flux.<RateChangeDTO>create(sink -> {
+                    CoalescingEmitter emitter = new CoalescingEmitter(sink);
+                    Disposable subscription;
+                    synchronized (this) {
+                        // 在同一個鎖內取得現況並訂閱，不會漏掉或重複任何異動
+                        currentRates.forEach((code, rate) -> emitter.offer(toChange(code, rate)));
+                        subscription = changes.asFlux().subscribe(emitter::offer);
+                    }
+                    sink.onRequest(requested -> emitter.drain());
+                    // onDispose 只能註冊一次
+                    sink.onDispose(subscription::dispose);
+                })
+                .map(change -> ServerSentEvent.builder(change).event("rate").build());
+        // prefetch 1：差異留在 emitter 中合併，不在 merge 的佇列中堆積
+        return Flux.merge(1, deltas, heartbeats.onBackpressureDrop())
+                .doFinally(signal -> {
+                    if (released.compareAndSet(false, true)) {
+                        subscribers.decrementAndGet();
+                    }
+                });
+    }
+
+    @EventListener
+    public synchronized void onRatesChanged(CurrencyRatesChangedEvent event) {
+        if (event.reloaded()) {
+            for (Iterator<String> codes = currentRates.keySet().iterator(); codes.hasNext(); ) {
+                String code = codes.next();
+                if (!event.rates().containsKey(code)) {
+                    codes.remove();
+                    publish(code, ScaledRate.NONE);
+                }
+            }
+        }
+        event.rates().forEach((code, boxedRate) -> {
+            long rate = boxedRate;
+            Long previous = rate == ScaledRate.NONE ? currentRates.remove(code) : currentRates.put(code, rate);
+            if (previous == null ? rate != ScaledRate.NONE : previous != rate) {
+                publish(code, rate);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        changes.tryEmitComplete();
+        heartbeatScheduler.dispose();
+    }
+
+    private void publish(String code, long rate) {
+        Sinks.EmitResult result = changes.tryEmitNext(toChange(code, rate));
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            logger.debug("unable to publish rate change of {}: {}", code, result);
+        }
+    }
+
+    private static RateChangeDTO toChange(String code, long rate) {
+        return new RateChangeDTO(code, ScaledRate.toBigDecimal(rate), rate == ScaledRate.NONE);
+    }
+
+    public static class SubscriberLimitException extends RuntimeException {
+        public SubscriberLimitException() {
+            super("Too many subscribers");
+        }
+    }
+
+    /**
+     * Holds at most one pending change per code and emits only what the subscriber has requested.
+     */
+    private static final class CoalescingEmitter {
+        private final FluxSink<RateChangeDTO> sink;
+        private final Map<String, RateChangeDTO> pending = new LinkedHashMap<>();
+        private boolean draining;
+
+        CoalescingEmitter(FluxSink<RateChangeDTO> sink) {
+            this.sink = sink;
+        }
+
+        synchronized void offer(RateChangeDTO change) {
+            pending.put(change.getCode(), change);
+            drain();
+        }
+
+        synchronized void drain() {
+            if (draining) {
+                // sink.next 可能同步觸發下一次 request，由外層迴圈繼續處理
+                return;
+            }
+            draining = true;
+            try {
+                while (!pending.isEmpty() && sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                    Iterator<RateChangeDTO> iterator = pending.values().iterator();
+                    RateChangeDTO next = iterator.next();
+                    iterator.remove();
+                    sink.next(next);
+                }
+            } finally {
+                draining = false;
+            }
+        }
+    }
+}
@@ -2,30 +2,46 @@ package com.example.demo.util;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
 import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 public class EncryptionUtil {
 
     private static final String AES = "AES";
     private static final String AES_KEY = "1234567890123456"; // 必须是16位的key，可以根据需要更换
+    private static final SecretKeySpec KEY_SPEC = new SecretKeySpec(AES_KEY.getBytes(), AES);
+
+    // Cipher 非執行緒安全，以池化方式重複使用已初始化的實例，避免每次呼叫 Cipher.getInstance
+    private static final int POOL_SIZE = 64;
+    private static final BlockingQueue<Cipher> ENCRYPT_CIPHERS = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final BlockingQueue<Cipher> DECRYPT_CIPHERS = new ArrayBlockingQueue<>(POOL_SIZE);
 
     // 加密
     public static String encrypt(String data) throws Exception {
-        SecretKeySpec keySpec = new SecretKeySpec(AES_KEY.getBytes(), AES);
-        Cipher cipher = Cipher.getInstance(AES);
-        cipher.init(Cipher.ENCRYPT_MODE, keySpec);
+        Cipher cipher = borrow(ENCRYPT_CIPHERS, Cipher.ENCRYPT_MODE);
         byte[] encryptedBytes = cipher.doFinal(data.getBytes());
+        ENCRYPT_CIPHERS.offer(cipher);
         return Base64.getEncoder().encodeToString(encryptedBytes);
     }
 
     // 解密
     public static String decrypt(String encryptedData) throws Exception {
-        SecretKeySpec keySpec = new SecretKeySpec(AES_KEY.getBytes(), AES);
-        Cipher cipher = Cipher.getInstance(AES);
-        cipher.init(Cipher.DECRYPT_MODE, keySpec);
         byte[] decodedBytes = Base64.getDecoder().decode(encryptedData);
+        Cipher cipher = borrow(DECRYPT_CIPHERS, Cipher.DECRYPT_MODE);
         byte[] decryptedBytes = cipher.doFinal(decodedBytes);
+        // 失敗時 (例如 padding 錯誤) 不歸還，避免狀態未重置的 Cipher 被重複使用
+        DECRYPT_CIPHERS.offer(cipher);
         return new String(decryptedBytes);
     }
-}
 
+    private static Cipher borrow(BlockingQueue<Cipher> pool, int mode) throws GeneralSecurityException {
+        Cipher cipher = pool.poll();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(AES);
+            cipher.init(mode, KEY_SPEC);
+        }
+        return cipher;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.coindesk;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoinDeskClientTest {
+    private CoinDeskStubServer stubServer;
+    private CoinDeskProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        stubServer = new CoinDeskStubServer();
+        properties = new CoinDeskProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        properties.setBaseUrl(stubServer.baseUrl());
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(10));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    public void close() {
+        stubServer.close();
+    }
+
+    private CoinDeskClient client() {
+        return new CoinDeskClient(WebClient.builder(), properties, meterRegistry);
+    }
+
+    @Test
+    public void testConditionalRequestSkipsUnchangedPayload() {
+        CoinDeskClient client = client();
+
+        CoinDeskPayload payload = client.fetchIfChanged().block();
+        assertNotNull(payload);
+        assertEquals(663709263L, payload.response().getBpi().get("USD").getScaledRate());
+        assertNotNull(payload.eTag());
+        // 尚未存檔前再次抓取仍要取得完整內容
+        assertNotNull(client.fetchIfChanged().block());
+
+        client.remember(payload);
+        assertNull(client.fetchIfChanged().block());
+        assertEquals(1, stubServer.getNotModifiedCount());
+        assertEquals(1, meterRegistry.get("coindesk.fetch").tag("outcome", "not_modified").timer().count());
+
+        stubServer.publish("2024-10-12T08:16:30+00:00", "66400.5");
+        CoinDeskPayload changed = client.fetchIfChanged().block();
+        assertNotNull(changed);
+        assertEquals("2024-10-12T08:16:30+00:00", changed.updatedISO());
+    }
+
+    @Test
+    public void testSameUpdatedIsoIsSkippedWithoutValidators() {
+        stubServer.setValidatorsEnabled(false);
+        CoinDeskClient client = client();
+
+        CoinDeskPayload payload = client.fetchIfChanged().block();
+        assertNotNull(payload);
+        assertNull(payload.eTag());
+        client.remember(payload);
+
+        assertNull(client.fetchIfChanged().block());
+        assertEquals(0, stubServer.getNotModifiedCount());
+        assertEquals(2, stubServer.getRequestCount());
+    }
+
+    @Test
+    public void testServerErrorsAreRetried() {
+        stubServer.failNext(2, 503);
+        assertNotNull(client().fetchIfChanged().block());
+        assertEquals(3, stubServer.getRequestCount());
+        assertEquals(2.0, meterRegistry.get("coindesk.fetch.retries").counter().count());
+        assertEquals(1, meterRegistry.get("coindesk.fetch").tag("outcome", "changed").timer().count());
+    }
+
+    @Test
+    public void testClientErrorsAreNotRetried() {
+        stubServer.failNext(1, 404);
+
+        assertThrows(WebClientResponseException.NotFound.class, () -> client().fetchIfChanged().block());
+        assertEquals(1, stubServer.getRequestCount());
+    }
+
+    @Test
+    public void testSlowUpstreamTimesOutAndOpensBreaker() {
+        stubServer.setLatency(Duration.ofSeconds(2));
+        properties.getRetry().setMaxAttempts(1);
+        properties.setReadTimeout(Duration.ofMillis(100));
+        properties.getBreaker().setFailureThreshold(2);
+        CoinDeskClient client = client();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 2; i++) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> client.fetchIfChanged().block());
+            assertTrue(e instanceof WebClientRequestException || e.getCause() instanceof TimeoutException, e.toString());
+        }
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+
+        // 斷路中不再送出請求
+        assertThrows(CircuitBreakerOpenException.class, () -> client.fetchIfChanged().block());
+        assertEquals(2, stubServer.getRequestCount());
+        assertEquals(2, meterRegistry.get("coindesk.fetch").tag("outcome", "error").timer().count());
+        assertEquals(1, meterRegistry.get("coindesk.fetch").tag("outcome", "breaker_open").timer().count());
+    }
+
+    @Test
+    public void testBreakerClosesAfterSuccessfulTrial() {
+        long[] now = {0};
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(10), () -> now[0]);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertFalse(breaker.tryAcquire());
+
+        now[0] = Duration.ofSeconds(10).toNanos();
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+}
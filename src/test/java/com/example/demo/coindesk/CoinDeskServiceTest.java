@@ -0,0 +1,129 @@
+package com.example.demo.coindesk;
+
+import com.example.demo.currency.CurrencyEntity;
+import com.example.demo.currency.CurrencyEntityRepository;
+import com.example.demo.currency.CurrencyRateCache;
+import com.example.demo.history.MappedRateHistoryStore;
+import com.example.demo.history.OhlcBucketDTO;
+import com.example.demo.history.RateHistoryService;
+import com.example.demo.provider.FakeRateProvider;
+import com.example.demo.provider.RateAggregationService;
+import com.example.demo.provider.RateProviderProperties;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.MessageSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"currency.polling.enabled=false", "spring.jpa.show-sql=false"})
+public class CoinDeskServiceTest {
+    @Autowired
+    private MessageSource messageSource;
+    @Autowired
+    private CurrencyEntityRepository currencyEntityRepository;
+    @Autowired
+    private CurrencyRateCache currencyRateCache;
+    @Autowired
+    private RateHistoryService rateHistoryService;
+    @Autowired
+    private MappedRateHistoryStore mappedRateHistoryStore;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testUpsertRecordsHistoryInTheSameRound() {
+        Instant first = Instant.parse("2024-10-12T08:15:30Z");
+        Instant second = Instant.parse("2024-10-12T08:16:30Z");
+
+        List<CurrencyEntity> inserted = service(new FakeRateProvider("fake")
+                .quote("HQA", 10_0000L, 0).quote("HQB", 20_0000L, 0).updated(first)).getCurrentPrice().join();
+        // 第二輪 HQA 更新、HQB 匯率不變，兩者都要留下一筆歷史
+        List<CurrencyEntity> updated = service(new FakeRateProvider("fake")
+                .quote("HQA", 11_0000L, 0).quote("HQB", 20_0000L, 0).updated(second)).getCurrentPrice().join();
+
+        assertEquals(2, inserted.size());
+        assertEquals(2, updated.size());
+        assertEquals(110_000L, currencyEntityRepository.findByCode("HQA").getScaledRate());
+
+        List<OhlcBucketDTO> hqa = rateHistoryService.ohlc("HQA", first, second.plusSeconds(1), Duration.ofHours(1));
+        assertEquals(1, hqa.size());
+        assertEquals(2, hqa.get(0).getCount());
+        assertEquals(0, new BigDecimal("10").compareTo(hqa.get(0).getOpen()));
+        assertEquals(0, new BigDecimal("11").compareTo(hqa.get(0).getClose()));
+
+        List<OhlcBucketDTO> hqb = rateHistoryService.ohlc("HQB", first, second.plusSeconds(1), Duration.ofMinutes(1));
+        assertEquals(2, hqb.size());
+        assertEquals(0, new BigDecimal("20").compareTo(hqb.get(1).getClose()));
+
+        // 範圍外的時間沒有資料
+        assertTrue(rateHistoryService.ohlc("HQA", second.plusSeconds(1), second.plusSeconds(3600), Duration.ofHours(1)).isEmpty());
+    }
+
+    @Test
+    public void testUpsertIsOneInQueryAndOneBatchPerStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            FakeRateProvider provider = new FakeRateProvider("fake").updated(Instant.parse("2024-10-12T09:00:00Z"));
+            for (int i = 0; i < 40; i++) {
+                provider.quote(String.format("HS%02d", i), 10_0000L + i, 0);
+            }
+            // 40 筆新增：IN 查詢一次，幣別與歷史各一個 JDBC batch
+            assertStatements(statistics, provider, 80, 0, 2);
+
+            provider = new FakeRateProvider("fake").updated(Instant.parse("2024-10-12T09:01:00Z"));
+            for (int i = 0; i < 50; i++) {
+                provider.quote(String.format("HS%02d", i), 20_0000L + i, 0);
+            }
+            // 40 筆更新加 10 筆新增：更新、新增與 50 筆歷史各一個 JDBC batch
+            assertStatements(statistics, provider, 60, 40, 3);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    /**
+     * Runs one round and checks the statements it prepared. With batching every insert or update statement is
+     * prepared once per batch instead of once per row; sequence calls depend on where the pooled block
+     * (allocationSize 50) stands, so they are read from the sequences themselves.
+     */
+    private void assertStatements(Statistics statistics, FakeRateProvider provider, long inserts, long updates, long batchedStatements) {
+        long sequenceBase = sequenceBase();
+        statistics.clear();
+
+        service(provider).getCurrentPrice().join();
+
+        long sequenceCalls = (sequenceBase() - sequenceBase) / 50;
+        assertTrue(sequenceCalls <= 2, "sequence calls: " + sequenceCalls);
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertEquals(inserts, statistics.getEntityInsertCount());
+        assertEquals(updates, statistics.getEntityUpdateCount());
+        assertEquals(1 + batchedStatements + sequenceCalls, statistics.getPrepareStatementCount());
+    }
+
+    private long sequenceBase() {
+        return jdbcTemplate.queryForObject("select sum(base_value) from information_schema.sequences"
+                + " where sequence_name in ('BITCOIN_EXCHANGE_RATE_SEQ', 'BITCOIN_EXCHANGE_RATE_HISTORY_SEQ')", Long.class);
+    }
+
+    private CoinDeskService service(FakeRateProvider provider) {
+        RateAggregationService rateAggregationService = new RateAggregationService(List.of(provider), new RateProviderProperties());
+        return new CoinDeskService(rateAggregationService, messageSource, currencyEntityRepository, currencyRateCache,
+                rateHistoryService, mappedRateHistoryStore, transactionManager, Runnable::run);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.coindesk;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for {@code /v1/bpi/currentprice.json} that can add latency, answer {@code 304} to
+ * matching validators and fail a given number of requests.
+ */
+public class CoinDeskStubServer implements AutoCloseable {
+    public static final String PATH = "/v1/bpi/currentprice.json";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger notModifiedCount = new AtomicInteger();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
+    private volatile String updatedISO = "2024-10-12T08:15:30+00:00";
+    private volatile String usdRate = "66370.9263";
+    private volatile boolean validatorsEnabled = true;
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int failureStatus = 503;
+
+    public CoinDeskStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void publish(String updatedISO, String usdRate) {
+        this.updatedISO = updatedISO;
+        this.usdRate = usdRate;
+    }
+
+    public void setValidatorsEnabled(boolean validatorsEnabled) {
+        this.validatorsEnabled = validatorsEnabled;
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void failNext(int count, int status) {
+        failureStatus = status;
+        failuresLeft.set(count);
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    public int getNotModifiedCount() {
+        return notModifiedCount.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try (exchange) {
+            if (!latency.isZero()) {
+                try {
+                    Thread.sleep(latency.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                exchange.sendResponseHeaders(failureStatus, -1);
+                return;
+            }
+
+            String currentISO = updatedISO;
+            String eTag = "\"" + Integer.toHexString((currentISO + usdRate).hashCode()) + "\"";
+            if (validatorsEnabled) {
+                if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModifiedCount.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+                exchange.getResponseHeaders().set("ETag", eTag);
+                exchange.getResponseHeaders().set("Last-Modified",
+                        DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.parse(currentISO)));
+            }
+            byte[] body = ("{\"time\":{\"updatedISO\":\"" + currentISO + "\"},"
+                    + "\"bpi\":{\"USD\":{\"code\":\"USD\",\"symbol\":\"&#36;\",\"rate\":\"66,370.926\","
+                    + "\"description\":\"United States Dollar\",\"rate_float\":" + usdRate + "}}}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.coindesk;
+
+import com.example.demo.currency.CurrencyEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RatePollingSchedulerTest {
+    private CoinDeskService coinDeskService;
+    private SimpleMeterRegistry meterRegistry;
+    private RatePollingScheduler scheduler;
+
+    @BeforeEach
+    public void setup() {
+        coinDeskService = mock(CoinDeskService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        RatePollingProperties properties = new RatePollingProperties();
+        properties.setInterval(Duration.ofSeconds(10));
+        properties.setMaxInterval(Duration.ofSeconds(30));
+        CoinDeskProperties coinDeskProperties = new CoinDeskProperties();
+        coinDeskProperties.setDeadline(Duration.ofMillis(100));
+        scheduler = new RatePollingScheduler(coinDeskService, properties, coinDeskProperties, meterRegistry);
+    }
+
+    @Test
+    public void testIntervalBacksOffWhileUnchangedAndResetsOnChange() {
+        when(coinDeskService.getCurrentPrice()).thenReturn(CompletableFuture.completedFuture(List.of()));
+        scheduler.poll();
+        assertEquals(Duration.ofSeconds(20), scheduler.getCurrentInterval());
+        scheduler.poll();
+        scheduler.poll();
+        assertEquals(Duration.ofSeconds(30), scheduler.getCurrentInterval());
+        assertTrue(meterRegistry.get("currency.poll.last.success").gauge().value() > 0);
+
+        when(coinDeskService.getCurrentPrice()).thenReturn(CompletableFuture.completedFuture(
+                List.of(new CurrencyEntity(), new CurrencyEntity())));
+        scheduler.poll();
+        assertEquals(Duration.ofSeconds(10), scheduler.getCurrentInterval());
+        assertEquals(2.0, meterRegistry.get("currency.poll.rows.changed").counter().count());
+        assertEquals(1, meterRegistry.get("currency.poll.fetch").tag("outcome", "changed").timer().count());
+        assertEquals(3, meterRegistry.get("currency.poll.fetch").tag("outcome", "unchanged").timer().count());
+    }
+
+    @Test
+    public void testTickReturnsOnceAsyncFetchIsRecorded() {
+        when(coinDeskService.getCurrentPrice()).thenAnswer(invocation -> CompletableFuture.supplyAsync(() -> {
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.<CurrencyEntity>of();
+        }));
+
+        // 下次排程以這次結果計算的間隔起算，且不會被誤算為略過
+        scheduler.poll();
+        assertEquals(Duration.ofSeconds(20), scheduler.getCurrentInterval());
+        scheduler.poll();
+        assertEquals(Duration.ofSeconds(30), scheduler.getCurrentInterval());
+        assertEquals(0.0, meterRegistry.get("currency.poll.skipped").counter().count());
+        assertEquals(2, meterRegistry.get("currency.poll.fetch").tag("outcome", "unchanged").timer().count());
+    }
+
+    @Test
+    public void testTickIsSkippedWhileFetchInFlight() {
+        CompletableFuture<List<CurrencyEntity>> pending = new CompletableFuture<>();
+        when(coinDeskService.getCurrentPrice()).thenReturn(pending);
+
+        scheduler.poll();
+        scheduler.poll();
+        scheduler.poll();
+        verify(coinDeskService, times(1)).getCurrentPrice();
+        assertEquals(2.0, meterRegistry.get("currency.poll.skipped").counter().count());
+
+        pending.completeExceptionally(new IllegalStateException("upstream down"));
+        assertEquals(Duration.ofSeconds(20), scheduler.getCurrentInterval());
+        assertEquals(0.0, meterRegistry.get("currency.poll.last.success").gauge().value());
+        assertEquals(1, meterRegistry.get("currency.poll.fetch").tag("outcome", "failed").timer().count());
+
+        when(coinDeskService.getCurrentPrice()).thenThrow(new IllegalStateException("rejected"));
+        scheduler.poll();
+        scheduler.poll();
+        verify(coinDeskService, times(3)).getCurrentPrice();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoggingAspectTest {
+    private final ch.qos.logback.classic.Logger aspectLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(LoggingAspect.class);
+    private LoggingAspect loggingAspect;
+
+    @BeforeEach
+    public void setup() {
+        aspectLogger.setLevel(Level.DEBUG);
+    }
+
+    @AfterEach
+    public void close() {
+        aspectLogger.setLevel(null);
+        if (loggingAspect != null) {
+            loggingAspect.close();
+        }
+    }
+
+    @Test
+    public void testExceptionsAreRethrown() {
+        SampleController controller = proxy(new ApiLoggingProperties());
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> controller.fail());
+        assertEquals("boom", thrown.getMessage());
+        assertEquals("ok", controller.echo("ok"));
+    }
+
+    @Test
+    public void testDropsInsteadOfBlockingWhenQueueIsFull() {
+        ApiLoggingProperties properties = new ApiLoggingProperties();
+        properties.setQueueCapacity(0);
+        SampleController controller = proxy(properties);
+
+        for (int i = 0; i < 100; i++) {
+            controller.echo("value");
+        }
+        // 每次呼叫一筆 request、一筆 response
+        assertEquals(200, loggingAspect.getDroppedCount());
+    }
+
+    @Test
+    public void testSamplingAndDisabledDebugSkipLogging() {
+        ApiLoggingProperties properties = new ApiLoggingProperties();
+        properties.setQueueCapacity(0);
+        ApiLoggingProperties.Endpoint endpoint = new ApiLoggingProperties.Endpoint();
+        endpoint.setSampleRate(0.0);
+        properties.setEndpoints(Map.of("SampleController.echo", endpoint));
+        SampleController controller = proxy(properties);
+
+        controller.echo("value");
+        assertEquals(0, loggingAspect.getDroppedCount());
+
+        aspectLogger.setLevel(Level.INFO);
+        assertThrows(IllegalStateException.class, () -> controller.fail());
+        assertEquals(0, loggingAspect.getDroppedCount());
+    }
+
+    @Test
+    public void testArgumentsAreCapturedAtCallTimeAndStreamsAreSkipped() {
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        aspectLogger.addAppender(appender);
+        try {
+            SampleController controller = proxy(new ApiLoggingProperties());
+
+            // 方法內修改參數，記錄仍是呼叫當下的內容
+            assertEquals("consumed", controller.consume(new ArrayList<>(List.of("USD", "EUR"))));
+            assertEquals("read", controller.read(new ByteArrayInputStream(new byte[16])));
+            loggingAspect.close();
+
+            List<String> messages = appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+            assertEquals(List.of(
+                    "Request to SampleController.consume: [\"USD\",\"EUR\"]",
+                    "Response of SampleController.consume: \"consumed\"",
+                    "Response of SampleController.read: \"read\""), messages);
+        } finally {
+            aspectLogger.detachAppender(appender);
+        }
+    }
+
+    @Test
+    public void testRenderIsCappedWithoutSerializingEverything() {
+        try (AsyncLogWriter writer = new AsyncLogWriter(LoggerFactory.getLogger(getClass()), new ObjectMapper(), 10)) {
+            List<String> large = Collections.nCopies(100_000, "0123456789");
+
+            String rendered = writer.render(large, 64);
+            assertEquals(64 + "...(truncated)".length(), rendered.length());
+            assertTrue(rendered.startsWith("[\"0123456789\""));
+            assertEquals("{\"code\":\"USD\"}", writer.render(Map.of("code", "USD"), 64));
+            assertEquals("java.lang.IllegalStateException: boom", writer.render(new IllegalStateException("boom"), 64));
+        }
+    }
+
+    private SampleController proxy(ApiLoggingProperties properties) {
+        loggingAspect = new LoggingAspect(properties, new ObjectMapper());
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleController());
+        factory.addAspect(loggingAspect);
+        return factory.getProxy();
+    }
+
+    @RestController
+    static class SampleController {
+        public String echo(String value) {
+            return value;
+        }
+
+        public String consume(List<String> values) {
+            values.clear();
+            return "consumed";
+        }
+
+        public String read(InputStream body) {
+            return "read";
+        }
+
+        public String fail() {
+            throw new IllegalStateException("boom");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WebClientLoggingFilterTest {
+    private final Logger filterLogger = (Logger) LoggerFactory.getLogger(WebClientLoggingFilter.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    public void setup() {
+        appender.start();
+        filterLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    public void close() {
+        filterLogger.detachAppender(appender);
+        filterLogger.setLevel(null);
+    }
+
+    @Test
+    public void testBodyStreamsThroughAndOnlyPrefixIsLogged() {
+        filterLogger.setLevel(Level.DEBUG);
+        AtomicInteger chunksServed = new AtomicInteger();
+        WebClient webClient = client(chunksServed, "{\"a\":1,", "\"b\":2,", "\"c\":3}");
+
+        String body = webClient.get().uri("http://upstream/test").retrieve().bodyToMono(String.class).block();
+
+        assertEquals("{\"a\":1,\"b\":2,\"c\":3}", body);
+        assertEquals(3, chunksServed.get());
+        String bodyLog = appender.list.stream()
+                .map(ILoggingEvent::getFormattedMessage)
+                .filter(message -> message.startsWith("Response Body"))
+                .findFirst().orElseThrow();
+        assertTrue(bodyLog.endsWith(": {\"a\":1,\"b\":2...(truncated)"), bodyLog);
+        assertTrue(bodyLog.contains("19 bytes"), bodyLog);
+    }
+
+    @Test
+    public void testNothingIsLoggedWhenDebugIsOff() {
+        filterLogger.setLevel(Level.INFO);
+        WebClient webClient = client(new AtomicInteger(), "{}");
+
+        assertEquals("{}", webClient.get().uri("http://upstream/test").retrieve().bodyToMono(String.class).block());
+        assertTrue(appender.list.isEmpty());
+    }
+
+    private static WebClient client(AtomicInteger chunksServed, String... chunks) {
+        DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+        Flux<DataBuffer> body = Flux.fromArray(chunks)
+                .map(chunk -> {
+                    chunksServed.incrementAndGet();
+                    return (DataBuffer) bufferFactory.wrap(chunk.getBytes(StandardCharsets.UTF_8));
+                });
+        return WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header("Content-Type", "application/json")
+                        .body(body)
+                        .build()))
+                .filter(new WebClientLoggingFilter(12))
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.controller;
+
+import com.example.demo.currency.CurrencyBatchController;
+import com.example.demo.currency.CurrencyBatchItemDTO;
+import com.example.demo.currency.CurrencyBatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CurrencyBatchControllerTest {
+    private CurrencyBatchService currencyBatchService;
+    private CurrencyBatchController currencyBatchController;
+
+    @BeforeEach
+    public void setup() {
+        currencyBatchService = mock(CurrencyBatchService.class);
+        when(currencyBatchService.getMaxItems()).thenReturn(2);
+        when(currencyBatchService.apply(any(), any())).thenReturn(List.of());
+        currencyBatchController = new CurrencyBatchController(currencyBatchService, new ObjectMapper(), Runnable::run);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testItemsArePassedInInputOrder() throws Exception {
+        currencyBatchController.createBatch(body("[{\"code\":\"USD\",\"currencyNameCN\":\"美元\",\"rateFloat\":1.5}, null]")).join();
+        currencyBatchController.deleteBatch(body("[\"EUR\",\"GBP\"]")).join();
+
+        ArgumentCaptor<List<CurrencyBatchItemDTO>> created = ArgumentCaptor.forClass(List.class);
+        verify(currencyBatchService).apply(created.capture(), eq(CurrencyBatchService.Operation.CREATE));
+        assertEquals("USD", created.getValue().get(0).getCode());
+        assertEquals(new BigDecimal("1.5"), created.getValue().get(0).getRateFloat());
+        assertNull(created.getValue().get(1));
+
+        ArgumentCaptor<List<CurrencyBatchItemDTO>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(currencyBatchService).apply(deleted.capture(), eq(CurrencyBatchService.Operation.DELETE));
+        assertEquals(List.of("EUR", "GBP"), deleted.getValue().stream().map(CurrencyBatchItemDTO::getCode).toList());
+    }
+
+    @Test
+    public void testOversizedBodyIsRejectedWhileReading() {
+        // 超過上限後的內容即使格式錯誤也不會被解析
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> currencyBatchController.updateBatch(body("[{\"code\":\"A\"},{\"code\":\"B\"},{\"code\":\"C\"},{oops")));
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, exception.getStatusCode());
+        assertEquals("Too many items, max 2", exception.getReason());
+        verify(currencyBatchService, never()).apply(any(), any());
+    }
+
+    @Test
+    public void testMalformedBodyIsRejected() {
+        for (String json : List.of("{\"code\":\"A\"}", "[{\"code\":\"A\"}", "[{\"code\":}]")) {
+            ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                    () -> currencyBatchController.createBatch(body(json)), json);
+            assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode(), json);
+        }
+        assertThrows(ResponseStatusException.class, () -> currencyBatchController.deleteBatch(body("[{\"code\":\"A\"}]")));
+        verify(currencyBatchService, never()).apply(any(), any());
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,26 +3,31 @@ package com.example.demo.controller;
 import com.example.demo.currency.*;
 import com.example.demo.encryption.EncryptionController;
 import com.example.demo.util.EncryptionUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.util.Pair;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,20 +37,19 @@ public class CurrencyControllerTest {
     @Mock
     private CurrencyEntityRepository currencyEntityRepository;
 
-    @Mock
-    private ModelMapper modelMapper;
-
     @Mock
     private MessageSource messageSource;
 
     @InjectMocks
     private CurrencyController currencyController;
 
+    private CurrencyListSnapshots currencyListSnapshots;
     private Pair<CurrencyEntity, CurrencyDTO> usdPair;
     private Pair<CurrencyEntity, CurrencyDTO> eurPair;
 
     private final String local_zh_TW = "zh_TW";
     private final String encryptCodeUSD = "EPq9oFB3PKMMIpa6Z6HJSw==";
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @BeforeAll
     public static void initMocks() {
@@ -54,6 +58,16 @@ public class CurrencyControllerTest {
 
     @BeforeEach
     public void setup() {
+        CurrencyRateCache currencyRateCache = new CurrencyRateCache(currencyEntityRepository, new CurrencyCacheProperties());
+        ReflectionTestUtils.setField(currencyController, "currencyRateCache", currencyRateCache);
+        ReflectionTestUtils.setField(currencyController, "currencyMapper", new CurrencyMapper());
+        ReflectionTestUtils.setField(currencyController, "encryptedCodeResolver", new EncryptedCodeResolver(new CurrencyCacheProperties()));
+        CurrencyWriteBehindBuffer currencyWriteBehindBuffer = new CurrencyWriteBehindBuffer(currencyEntityRepository,
+                currencyRateCache, new CurrencyMapper(), new CurrencyWriteBehindProperties(), mock(PlatformTransactionManager.class));
+        currencyListSnapshots = new CurrencyListSnapshots(currencyRateCache, currencyWriteBehindBuffer, new CurrencyMapper(), objectMapper);
+        ReflectionTestUtils.setField(currencyController, "currencyListSnapshots", currencyListSnapshots);
+        ReflectionTestUtils.setField(currencyController, "currencyWriteBehindBuffer", currencyWriteBehindBuffer);
+
         CurrencyEntity usdEntity = new CurrencyEntity();
         usdEntity.setCode("USD");
         usdEntity.setCurrencyNameCN("美元");
@@ -90,7 +104,6 @@ public class CurrencyControllerTest {
         when(currencyEntityRepository.findByCode(fakeEntity.getCode())).thenReturn(!currencyExist ? null : fakeEntity);
         if (!currencyExist) {
             when(currencyEntityRepository.save(any(CurrencyEntity.class))).thenReturn(fakeEntity);
-            when(modelMapper.map(any(CurrencyEntity.class), eq(CurrencyDTO.class))).thenReturn(fakeDTO);
             when(messageSource.getMessage(any(), any(), any())).thenReturn(fakeDTO.getLanguage());
         }
 
@@ -122,11 +135,9 @@ public class CurrencyControllerTest {
 
     @ParameterizedTest
     @ValueSource(strings = {"ASC", "DESC"})
-    public void testGetAllCurrency_Sorted(String sortDirection) {
+    public void testGetAllCurrency_Sorted(String sortDirection) throws Exception {
         CurrencyEntity usd_fakeEntity = usdPair.getFirst();
-        CurrencyDTO usd_fakeDTO = usdPair.getSecond();
         CurrencyEntity eur_fakeEntity = eurPair.getFirst();
-        CurrencyDTO eur_fakeDTO = eurPair.getSecond();
 
         // Arrange
         List<CurrencyEntity> sortedList;
@@ -139,17 +150,21 @@ public class CurrencyControllerTest {
             when(currencyEntityRepository.findAll(Sort.by("code").descending())).thenReturn(sortedList);
         }
 
-        when(modelMapper.map(eur_fakeEntity, CurrencyDTO.class)).thenReturn(eur_fakeDTO);
-        when(modelMapper.map(usd_fakeEntity, CurrencyDTO.class)).thenReturn(usd_fakeDTO);
-
         // Act
-        List<CurrencyDTO> result = currencyController.getAllCurrency(local_zh_TW, sortDirection).join();
+        ResponseEntity<byte[]> response = currencyController.getAllCurrency(local_zh_TW, sortDirection, null, null, null, null).join();
+        JsonNode result = objectMapper.readTree(response.getBody());
 
         // Assert
-        assertNotNull(result);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getHeaders().getETag());
         assertEquals(sortedList.size(), result.size());
-        assertEquals(sortedList.get(0).getCode(), result.get(0).getCode());
-        assertEquals(sortedList.get(1).getCode(), result.get(1).getCode());
+        assertEquals(sortedList.get(0).getCode(), result.get(0).get("code").asText());
+        assertEquals(sortedList.get(1).getCode(), result.get(1).get("code").asText());
+
+        // A matching If-None-Match is answered from the snapshot without touching the repository again
+        ResponseEntity<byte[]> notModified = currencyController.getAllCurrency(local_zh_TW, sortDirection, null, null, null, response.getHeaders().getETag()).join();
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
 
         // Verify that findAll was called with the correct sort direction
         if ("ASC".equals(sortDirection)) {
@@ -159,6 +174,25 @@ public class CurrencyControllerTest {
         }
     }
 
+    @Test
+    public void testSnapshotsAreKeyedBySupportedLocalesOnly() throws Exception {
+        when(currencyEntityRepository.findAll(any(Sort.class))).thenReturn(List.of(usdPair.getFirst()));
+        when(messageSource.getMessage(eq("language"), any(), any(Locale.class))).thenAnswer(invocation -> invocation.getArgument(2).toString());
+
+        for (String acceptLanguage : List.of("fr", "de-CH", "ja;q=0.9", "zh-HK", "zh-TW", "en-US,en;q=0.9", "en-GB", "x-unknown", "zh_TW", "*")) {
+            ResponseEntity<byte[]> response = currencyController.getAllCurrency(acceptLanguage, "ASC", null, null, null, null).join();
+            String language = objectMapper.readTree(response.getBody()).get(0).get("language").asText();
+            assertTrue(List.of("zh_TW", "en").contains(language), acceptLanguage + " -> " + language);
+        }
+
+        // 任意的 Accept-Language 只會落在支援的語系上，快照數量固定
+        assertEquals(2, ((Map<?, ?>) ReflectionTestUtils.getField(currencyListSnapshots, "snapshots")).size());
+        assertEquals(Locale.ENGLISH, SupportedLocales.resolve("fr;q=0.9,en-US;q=0.8"));
+        assertEquals(Locale.TAIWAN, SupportedLocales.resolve("zh-CN"));
+        assertEquals(Locale.TAIWAN, SupportedLocales.resolve("fr"));
+        assertThrows(IllegalArgumentException.class, () -> currencyListSnapshots.get(Locale.FRENCH, Sort.Direction.ASC, "français"));
+    }
+
     @ParameterizedTest
     @ValueSource(booleans = {true, false})
     public void testFindCurrency(boolean currencyExist) {
@@ -169,7 +203,6 @@ public class CurrencyControllerTest {
         // Arrange
         when(currencyEntityRepository.findByCode(fakeEntity.getCode())).thenReturn(currencyExist ? fakeEntity : null);
         if (currencyExist) {
-            when(modelMapper.map(fakeEntity, CurrencyDTO.class)).thenReturn(fakeDTO);
             when(messageSource.getMessage(any(), any(), any())).thenReturn(fakeDTO.getLanguage());
         }
 
@@ -211,7 +244,6 @@ public class CurrencyControllerTest {
         when(currencyEntityRepository.findByCode(fakeEntity.getCode())).thenReturn(currencyExist ? fakeEntity : null);
         if (currencyExist) {
             when(currencyEntityRepository.save(fakeEntity)).thenReturn(fakeEntity);
-            when(modelMapper.map(fakeEntity, CurrencyDTO.class)).thenReturn(fakeDTO);
             when(messageSource.getMessage(any(), any(), any())).thenReturn(fakeDTO.getLanguage());
         }
 
@@ -227,7 +259,7 @@ public class CurrencyControllerTest {
             assertNotNull(result);
             assertEquals(fakeEntity.getCode(), result.getCode());
             assertEquals(updatedName, result.getCurrencyNameCN());
-            assertEquals(updatedRate, result.getRateFloat());
+            assertEquals(updatedRate.setScale(ScaledRate.SCALE), result.getRateFloat());
             assertEquals(local_zh_TW, result.getLanguage());
         } else {
             // Act
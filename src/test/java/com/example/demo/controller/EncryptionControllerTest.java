@@ -0,0 +1,153 @@
+package com.example.demo.controller;
+
+import com.example.demo.encryption.EncryptionBulkController;
+import com.example.demo.encryption.EncryptionBulkProperties;
+import com.example.demo.encryption.EncryptionBulkService;
+import com.example.demo.encryption.EncryptionController;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EncryptionControllerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ExecutorService executor;
+    private EncryptionBulkProperties properties;
+    private final EncryptionController encryptionController = new EncryptionController();
+    private EncryptionBulkController encryptionBulkController;
+
+    @BeforeEach
+    public void setup() {
+        executor = Executors.newFixedThreadPool(4);
+        properties = new EncryptionBulkProperties();
+        properties.setChunkSize(3);
+        properties.setParallelism(2);
+        encryptionBulkController = new EncryptionBulkController(new EncryptionBulkService(executor, properties), objectMapper);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testEncryptBulkKeepsInputOrder() throws Exception {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            codes.add("CODE" + i);
+        }
+
+        ResponseEntity<StreamingResponseBody> response = encryptionBulkController.encryptBulk(input(objectMapper.writeValueAsString(codes)));
+        JsonNode result = objectMapper.readTree(write(response));
+
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(codes.size(), result.size());
+        for (int i = 0; i < codes.size(); i++) {
+            assertEquals(i, result.get(i).get("index").asInt());
+            assertEquals(codes.get(i), result.get(i).get("data").asText());
+            assertEquals(encryptionController.encryptData(codes.get(i)), "Encrypted Data: " + result.get(i).get("result").asText());
+        }
+    }
+
+    @Test
+    public void testDecryptBulkReportsPartialFailures() throws Exception {
+        String body = "EPq9oFB3PKMMIpa6Z6HJSw==\nnot-a-token\n\nEPq9oFB3PKMMIpa6Z6HJSw==\n";
+
+        ResponseEntity<StreamingResponseBody> response = encryptionBulkController.decryptBulkLines(input(body));
+        String[] lines = write(response).split("\n");
+
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals(3, lines.length);
+        assertEquals("USD", objectMapper.readTree(lines[0]).get("result").asText());
+        assertTrue(objectMapper.readTree(lines[1]).has("error"));
+        assertFalse(objectMapper.readTree(lines[1]).has("result"));
+        assertEquals(2, objectMapper.readTree(lines[2]).get("index").asInt());
+        assertEquals("USD", objectMapper.readTree(lines[2]).get("result").asText());
+    }
+
+    @Test
+    public void testOversizedBatchEndsWithErrorItem() throws Exception {
+        properties.setMaxItems(4);
+
+        ResponseEntity<StreamingResponseBody> response = encryptionBulkController.encryptBulk(input("[\"USD\", \"EUR\", \"GBP\", \"JPY\", \"AUD\", \"CAD\"]"));
+        // 回應已開始送出，仍須是完整的 JSON 陣列
+        JsonNode result = objectMapper.readTree(write(response));
+
+        assertEquals(5, result.size());
+        assertEquals("JPY", result.get(3).get("data").asText());
+        assertTrue(result.get(3).has("result"));
+        assertEquals(4, result.get(4).get("index").asInt());
+        assertTrue(result.get(4).get("error").asText().startsWith("Too many items, max 4"));
+    }
+
+    @Test
+    public void testMalformedElementsAreReportedPerItem() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = encryptionBulkController.encryptBulk(
+                input("[\"USD\", {\"code\": [\"EUR\"]}, [1, 2], \"GBP\", tru"));
+        JsonNode result = objectMapper.readTree(write(response));
+
+        assertEquals(5, result.size());
+        assertTrue(result.get(0).has("result"));
+        assertEquals("Expected a string but got an object", result.get(1).get("error").asText());
+        assertEquals("Expected a string but got an array", result.get(2).get("error").asText());
+        assertEquals("GBP", result.get(3).get("data").asText());
+        assertTrue(result.get(3).has("result"));
+        assertTrue(result.get(4).get("error").asText().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    public void testRejectsBodyThatIsNotAnArray() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> encryptionBulkController.encryptBulk(input("{\"data\": \"USD\"}")));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    public void testInputIsReadAheadAtMostParallelismChunks() throws Exception {
+        EncryptionBulkService service = new EncryptionBulkService(executor, properties);
+        int[] read = {0};
+        int[] written = {0};
+        EncryptionBulkService.ChunkReader reader = (chunk, max) -> {
+            int count = Math.min(max, 100 - read[0]);
+            for (int i = 0; i < count; i++) {
+                chunk.add(EncryptionBulkService.Item.of("CODE" + (read[0] + i)));
+            }
+            read[0] += count;
+            return count;
+        };
+
+        service.process(reader, EncryptionBulkService.Operation.ENCRYPT, results -> {
+            // 尚未寫出的筆數不超過 chunk-size * parallelism
+            assertTrue(read[0] - written[0] <= properties.getChunkSize() * properties.getParallelism());
+            written[0] += results.size();
+        });
+        assertEquals(100, written[0]);
+    }
+
+    private static InputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String write(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo.controller;
+
+import com.example.demo.history.MappedRateHistoryStore;
+import com.example.demo.history.RateHistoryController;
+import com.example.demo.history.RateHistoryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class RateHistoryControllerTest {
+    @Mock
+    private RateHistoryService rateHistoryService;
+
+    @Mock
+    private MappedRateHistoryStore mappedRateHistoryStore;
+
+    @InjectMocks
+    private RateHistoryController rateHistoryController;
+
+    private final Instant from = Instant.parse("2024-10-12T00:00:00Z");
+    private final Instant to = Instant.parse("2024-10-13T00:00:00Z");
+
+    @Test
+    public void testGetHistory() {
+        // Arrange
+        when(rateHistoryService.ohlc(any(), any(), any(), any())).thenReturn(List.of());
+
+        // Act
+        assertEquals(List.of(), rateHistoryController.getHistory("USD", from, to, "15m").join());
+        assertEquals(List.of(), rateHistoryController.getHistory("USD", from, to, "PT1H").join());
+        rateHistoryController.getHistory("USD", null, to, "1h").join();
+
+        // Verify: step 可用簡寫或 ISO-8601，未給 from 時預設為 to 的前一天
+        verify(rateHistoryService, times(1)).ohlc("USD", from, to, Duration.ofMinutes(15));
+        verify(rateHistoryService, times(2)).ohlc("USD", from, to, Duration.ofHours(1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"abc", "1x", ""})
+    public void testGetHistory_InvalidStep(String step) {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            rateHistoryController.getHistory("USD", from, to, step).join();
+        });
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals("Invalid step", exception.getReason());
+        verifyNoInteractions(rateHistoryService);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"equal", "reversed", "zeroStep", "negativeStep"})
+    public void testGetHistory_InvalidRange(String invalidCase) {
+        Instant start = switch (invalidCase) {
+            case "equal" -> to;
+            case "reversed" -> to.plusSeconds(1);
+            default -> from;
+        };
+        String step = switch (invalidCase) {
+            case "zeroStep" -> "0s";
+            case "negativeStep" -> "-1h";
+            default -> "1h";
+        };
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            rateHistoryController.getHistory("USD", start, to, step).join();
+        });
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals("Invalid range", exception.getReason());
+        verifyNoInteractions(rateHistoryService);
+    }
+
+    @Test
+    public void testGetHistory_TooManyBuckets() {
+        when(rateHistoryService.ohlc(any(), any(), any(), any())).thenReturn(List.of());
+
+        // 10000 個區間是上限
+        rateHistoryController.getHistory("USD", from, from.plus(Duration.ofMinutes(10_000)), "1m").join();
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            rateHistoryController.getHistory("USD", from, from.plus(Duration.ofMinutes(10_001)), "1m").join();
+        });
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals("Too many buckets, increase step", exception.getReason());
+        verify(rateHistoryService, times(1)).ohlc(any(), any(), any(), any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testGetTicks(boolean mappedHistoryEnabled) {
+        // Arrange
+        when(mappedRateHistoryStore.isEnabled()).thenReturn(mappedHistoryEnabled);
+        when(mappedRateHistoryStore.range(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        if (mappedHistoryEnabled) {
+            // Act
+            assertEquals(List.of(), rateHistoryController.getTicks("USD", from, to, 100_000).join());
+            rateHistoryController.getTicks("USD", null, to, 1).join();
+
+            // Verify
+            verify(mappedRateHistoryStore, times(1)).range("USD", from, to, 100_000);
+            verify(mappedRateHistoryStore, times(1)).range("USD", from, to, 1);
+        } else {
+            ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+                rateHistoryController.getTicks("USD", from, to, 10).join();
+            });
+
+            assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+            assertEquals("Mapped history is disabled", exception.getReason());
+            verify(mappedRateHistoryStore, never()).range(any(), any(), any(), anyInt());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 100_001})
+    public void testGetTicks_InvalidLimit(int limit) {
+        when(mappedRateHistoryStore.isEnabled()).thenReturn(true);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            rateHistoryController.getTicks("USD", from, to, limit).join();
+        });
+        assertThrows(ResponseStatusException.class, () -> rateHistoryController.getTicks("USD", to, from, 10).join());
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals("Invalid range", exception.getReason());
+        verify(mappedRateHistoryStore, never()).range(any(), any(), any(), anyInt());
+    }
+}
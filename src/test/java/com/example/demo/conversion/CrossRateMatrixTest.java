@@ -0,0 +1,94 @@
+package com.example.demo.conversion;
+
+import com.example.demo.currency.CurrencyRatesChangedEvent;
+import com.example.demo.currency.ScaledRate;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CrossRateMatrixTest {
+
+    @Test
+    public void testConvertsThroughBtcRates() {
+        CrossRateMatrix matrix = new CrossRateMatrix(Runnable::run);
+        matrix.onRatesChanged(new CurrencyRatesChangedEvent(Map.of(
+                "USD", ScaledRate.parse("66370.9263"),
+                "EUR", ScaledRate.parse("61564.9412"),
+                "GBP", ScaledRate.parse("51553.0000")), true));
+
+        CrossRateMatrix.Snapshot snapshot = matrix.snapshot();
+        int eur = snapshot.indexOf("EUR");
+        int gbp = snapshot.indexOf("GBP");
+        assertEquals(3, snapshot.size());
+        assertEquals(-1, snapshot.indexOf("JPY"));
+
+        BigDecimal expectedRate = new BigDecimal("51553.0000").divide(new BigDecimal("61564.9412"), CrossRateMatrix.CROSS_SCALE, RoundingMode.HALF_UP);
+        assertEquals(expectedRate, BigDecimal.valueOf(snapshot.crossRate(eur, gbp), CrossRateMatrix.CROSS_SCALE));
+        assertEquals(CrossRateMatrix.CROSS_UNIT, snapshot.crossRate(gbp, gbp));
+
+        BigDecimal expected = new BigDecimal("1234.5678").multiply(new BigDecimal("51553.0000"))
+                .divide(new BigDecimal("61564.9412"), ScaledRate.SCALE, RoundingMode.HALF_UP);
+        assertEquals(expected, ScaledRate.toBigDecimal(snapshot.convert(eur, gbp, ScaledRate.parse("1234.5678"))));
+    }
+
+    @Test
+    public void testIncrementalUpdatesMatchFullRebuild() {
+        Random random = new Random(3);
+        CrossRateMatrix incremental = new CrossRateMatrix(Runnable::run);
+        Map<String, Long> rates = new HashMap<>();
+
+        for (int step = 0; step < 500; step++) {
+            String code = "C" + random.nextInt(20);
+            long rate = random.nextInt(10) == 0 ? ScaledRate.NONE : 1 + (long) (random.nextDouble() * 1_000_000_000_000L);
+            incremental.onRatesChanged(new CurrencyRatesChangedEvent(Map.of(code, rate), false));
+            if (rate == ScaledRate.NONE) {
+                rates.remove(code);
+            } else {
+                rates.put(code, rate);
+            }
+            CrossRateMatrix rebuilt = new CrossRateMatrix(Runnable::run);
+            rebuilt.onRatesChanged(new CurrencyRatesChangedEvent(Map.copyOf(rates), true));
+            assertSameMatrix(rebuilt.snapshot(), incremental.snapshot(), rates);
+        }
+    }
+
+    @Test
+    public void testCoalescesEventsIntoOneRebuild() {
+        List<Runnable> scheduled = new ArrayList<>();
+        CrossRateMatrix matrix = new CrossRateMatrix(scheduled::add);
+
+        matrix.onRatesChanged(new CurrencyRatesChangedEvent(Map.of("USD", ScaledRate.parse("66370.9263")), true));
+        matrix.onRatesChanged(new CurrencyRatesChangedEvent(Map.of("EUR", ScaledRate.parse("61564.9412")), false));
+        matrix.onRatesChanged(new CurrencyRatesChangedEvent(Map.of("USD", ScaledRate.NONE), false));
+
+        // 重建前讀到的仍是舊的矩陣
+        assertEquals(0, matrix.snapshot().size());
+        assertEquals(1, scheduled.size());
+        scheduled.remove(0).run();
+
+        assertEquals(1, matrix.snapshot().size());
+        assertEquals(-1, matrix.snapshot().indexOf("USD"));
+        assertEquals(CrossRateMatrix.CROSS_UNIT, matrix.snapshot().crossRate(matrix.snapshot().indexOf("EUR"), 0));
+
+        matrix.onRatesChanged(new CurrencyRatesChangedEvent(Map.of("GBP", ScaledRate.parse("51553.0000")), false));
+        assertEquals(1, scheduled.size());
+    }
+
+    private static void assertSameMatrix(CrossRateMatrix.Snapshot expected, CrossRateMatrix.Snapshot actual, Map<String, Long> rates) {
+        assertEquals(rates.size(), actual.size());
+        for (String from : rates.keySet()) {
+            for (String to : rates.keySet()) {
+                assertEquals(expected.crossRate(expected.indexOf(from), expected.indexOf(to)),
+                        actual.crossRate(actual.indexOf(from), actual.indexOf(to)), from + "->" + to);
+            }
+        }
+    }
+}
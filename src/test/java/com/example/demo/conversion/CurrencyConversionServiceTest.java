@@ -0,0 +1,50 @@
+package com.example.demo.conversion;
+
+import com.example.demo.currency.CurrencyCacheProperties;
+import com.example.demo.currency.CurrencyEntity;
+import com.example.demo.currency.CurrencyEntityRepository;
+import com.example.demo.currency.CurrencyRateCache;
+import com.example.demo.currency.CurrencyRatesChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CurrencyConversionServiceTest {
+
+    @Test
+    public void testConvertsBeforeMatrixCatchesUp() {
+        CurrencyEntityRepository repository = mock(CurrencyEntityRepository.class);
+        when(repository.findByCode("EUR")).thenReturn(entity("EUR", "61564.9412"));
+        when(repository.findByCode("GBP")).thenReturn(entity("GBP", "51553.0000"));
+        CurrencyRateCache cache = new CurrencyRateCache(repository, new CurrencyCacheProperties());
+
+        // 背景重建尚未執行，矩陣仍是空的
+        List<Runnable> scheduled = new ArrayList<>();
+        CrossRateMatrix pending = new CrossRateMatrix(scheduled::add);
+        cache.setApplicationEventPublisher(event -> pending.onRatesChanged((CurrencyRatesChangedEvent) event));
+        ConversionDTO fromCache = new CurrencyConversionService(pending, cache, new CurrencyConversionProperties()).convert("EUR", "GBP", new BigDecimal("1234.5678"));
+        assertEquals(0, pending.snapshot().size());
+
+        scheduled.forEach(Runnable::run);
+        ConversionDTO fromMatrix = new CurrencyConversionService(pending, cache, new CurrencyConversionProperties()).convert("EUR", "GBP", new BigDecimal("1234.5678"));
+        assertEquals(2, pending.snapshot().size());
+        assertEquals(fromMatrix.getResult(), fromCache.getResult());
+        assertEquals(fromMatrix.getRate(), fromCache.getRate());
+
+        assertThrows(CurrencyConversionService.UnknownCurrencyException.class,
+                () -> new CurrencyConversionService(pending, cache, new CurrencyConversionProperties()).convert("EUR", "JPY", BigDecimal.ONE));
+    }
+
+    private static CurrencyEntity entity(String code, String rate) {
+        CurrencyEntity entity = new CurrencyEntity();
+        entity.setCode(code);
+        entity.setRateFloat(new BigDecimal(rate));
+        return entity;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.currency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// chunk-size=2 讓每個批次跨越多個 IN 查詢與 flush
+@SpringBootTest(properties = {"currency.batch.chunk-size=2", "currency.polling.enabled=false", "spring.jpa.show-sql=false"})
+public class CurrencyBatchServiceTest {
+    @Autowired
+    private CurrencyBatchService currencyBatchService;
+    @Autowired
+    private CurrencyEntityRepository currencyEntityRepository;
+    @Autowired
+    private CurrencyRateCache currencyRateCache;
+    @Autowired
+    private CurrencyWriteBehindBuffer currencyWriteBehindBuffer;
+
+    @Test
+    public void testCreateUpdateDeleteWithPerItemStatus() {
+        List<CurrencyBatchResult> created = currencyBatchService.apply(List.of(
+                item("BA1", "1.5", "一"),
+                item("BA2", "2.5", "二"),
+                item("BA1", "9.9", "重複"),
+                item(null, "1", "無代碼"),
+                item("BA3", "1" + "0".repeat(20), "超出範圍"),
+                item("BA4", "4.5", "四")), CurrencyBatchService.Operation.CREATE);
+
+        assertEquals(List.of(CurrencyBatchResult.Status.CREATED, CurrencyBatchResult.Status.CREATED,
+                        CurrencyBatchResult.Status.INVALID, CurrencyBatchResult.Status.INVALID,
+                        CurrencyBatchResult.Status.INVALID, CurrencyBatchResult.Status.CREATED),
+                statuses(created));
+        assertEquals("Duplicate code in batch", created.get(2).getError());
+        assertEquals(15_000L, currencyEntityRepository.findByCode("BA1").getScaledRate());
+        assertEquals(CurrencyBatchResult.Status.CONFLICT,
+                currencyBatchService.apply(List.of(item("BA1", "1", "一")), CurrencyBatchService.Operation.CREATE).get(0).getStatus());
+
+        List<CurrencyBatchResult> updated = currencyBatchService.apply(List.of(
+                item("BA1", "7.25", null),
+                item("BA9", "1", null),
+                item("BA4", null, "肆")), CurrencyBatchService.Operation.UPDATE);
+        assertEquals(List.of(CurrencyBatchResult.Status.UPDATED, CurrencyBatchResult.Status.NOT_FOUND,
+                CurrencyBatchResult.Status.UPDATED), statuses(updated));
+        assertEquals(72_500L, currencyEntityRepository.findByCode("BA1").getScaledRate());
+        assertEquals("一", currencyEntityRepository.findByCode("BA1").getCurrencyNameCN());
+        assertEquals("肆", currencyRateCache.findByCode("BA4").getCurrencyNameCN());
+
+        List<CurrencyBatchResult> deleted = currencyBatchService.apply(List.of(
+                item("BA1", null, null), item("BA2", null, null), item("BA9", null, null)), CurrencyBatchService.Operation.DELETE);
+        assertEquals(List.of(CurrencyBatchResult.Status.DELETED, CurrencyBatchResult.Status.DELETED,
+                CurrencyBatchResult.Status.NOT_FOUND), statuses(deleted));
+        assertNull(currencyEntityRepository.findByCode("BA1"));
+        assertNull(currencyRateCache.findByCode("BA2"));
+        assertNotNull(currencyEntityRepository.findByCode("BA4"));
+    }
+
+    @Test
+    public void testPendingWriteBehindEntriesAreFlushedNotLost() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        currencyWriteBehindBuffer.create("BW1", "待寫一", new BigDecimal("1.5"), now);
+        currencyWriteBehindBuffer.create("BW2", "待寫二", new BigDecimal("2.5"), now);
+
+        // 尚未寫回的新增也能被批次更新，而不是回報 NOT_FOUND 後遺失
+        assertEquals(List.of(CurrencyBatchResult.Status.UPDATED), statuses(currencyBatchService.apply(
+                List.of(item("BW1", "3", null)), CurrencyBatchService.Operation.UPDATE)));
+        assertEquals(30_000L, currencyEntityRepository.findByCode("BW1").getScaledRate());
+        assertEquals("待寫一", currencyEntityRepository.findByCode("BW1").getCurrencyNameCN());
+
+        // 衝突的項目不會丟棄原本待寫入的修改
+        assertEquals(List.of(CurrencyBatchResult.Status.CONFLICT), statuses(currencyBatchService.apply(
+                List.of(item("BW2", "9", "衝突")), CurrencyBatchService.Operation.CREATE)));
+        assertEquals(25_000L, currencyEntityRepository.findByCode("BW2").getScaledRate());
+        assertEquals(25_000L, currencyRateCache.findByCode("BW2").getScaledRate());
+        assertEquals(0, currencyWriteBehindBuffer.getPendingCount());
+
+        currencyBatchService.apply(List.of(item("BW1", null, null), item("BW2", null, null)), CurrencyBatchService.Operation.DELETE);
+    }
+
+    @Test
+    public void testTenThousandItems() {
+        List<CurrencyBatchItemDTO> items = new ArrayList<>(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            items.add(item(String.format("BK%05d", i), "1.0001", "批次"));
+        }
+
+        List<CurrencyBatchResult> results = currencyBatchService.apply(items, CurrencyBatchService.Operation.CREATE);
+
+        assertEquals(10_000, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == CurrencyBatchResult.Status.CREATED));
+        assertEquals(10_000, currencyEntityRepository.findByCodeIn(items.stream().map(CurrencyBatchItemDTO::getCode).toList()).size());
+
+        currencyBatchService.apply(items, CurrencyBatchService.Operation.DELETE);
+        assertTrue(currencyEntityRepository.findByCodeIn(List.of("BK00000", "BK09999")).isEmpty());
+    }
+
+    private static CurrencyBatchItemDTO item(String code, String rate, String name) {
+        CurrencyBatchItemDTO item = new CurrencyBatchItemDTO();
+        item.setCode(code);
+        item.setRateFloat(rate == null ? null : new BigDecimal(rate));
+        item.setCurrencyNameCN(name);
+        return item;
+    }
+
+    private static List<CurrencyBatchResult.Status> statuses(List<CurrencyBatchResult> results) {
+        return results.stream().map(CurrencyBatchResult::getStatus).toList();
+    }
+}
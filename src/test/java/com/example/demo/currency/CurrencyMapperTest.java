@@ -0,0 +1,86 @@
+package com.example.demo.currency;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link CurrencyMapper} produces exactly what the previous ModelMapper based mapping produced.
+ */
+public class CurrencyMapperTest {
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final CurrencyMapper currencyMapper = new CurrencyMapper();
+
+    static Stream<Arguments> entities() {
+        return Stream.of(
+                Arguments.of(1L, "USD", "美元", new BigDecimal("66370.93"), Timestamp.valueOf("2024-10-12 08:15:30")),
+                Arguments.of(2L, "EUR", "歐元", new BigDecimal("61564.9412"), Timestamp.valueOf("1999-12-31 23:59:59.999")),
+                Arguments.of(3L, "GBP", "英鎊", new BigDecimal("0.0001"), Timestamp.valueOf("2024-02-29 00:00:00")),
+                Arguments.of(4L, "JPY", null, new BigDecimal("1E+7"), Timestamp.valueOf("2030-01-01 12:00:00.123456789")),
+                Arguments.of(null, "TWD", "新台幣", null, null),
+                Arguments.of(null, null, null, null, null)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("entities")
+    public void testToDTOMatchesModelMapper(Long id, String code, String currencyNameCN, BigDecimal rateFloat, Timestamp updated) {
+        CurrencyEntity entity = new CurrencyEntity();
+        entity.setId(id);
+        entity.setCode(code);
+        entity.setCurrencyNameCN(currencyNameCN);
+        entity.setRateFloat(rateFloat);
+        entity.setUpdated(updated);
+
+        CurrencyDTO expected = modelMapper.map(entity, CurrencyDTO.class);
+        CurrencyDTO actual = currencyMapper.toDTO(entity);
+
+        assertEquals(expected.getCode(), actual.getCode());
+        assertEquals(expected.getCurrencyNameCN(), actual.getCurrencyNameCN());
+        assertEquals(expected.getRateFloat(), actual.getRateFloat());
+        assertEquals(expected.getUpdated(), actual.getUpdated());
+        assertEquals(expected.getLanguage(), actual.getLanguage());
+    }
+
+    @ParameterizedTest
+    @MethodSource("entities")
+    public void testToEntityMatchesControllerAssignment(Long id, String code, String currencyNameCN, BigDecimal rateFloat, Timestamp updated) {
+        CurrencyEntity expected = new CurrencyEntity();
+        expected.setUpdated(updated);
+        expected.setCode(code);
+        expected.setCurrencyNameCN(currencyNameCN);
+        expected.setRateFloat(rateFloat);
+
+        CurrencyEntity actual = currencyMapper.toEntity(code, currencyNameCN, rateFloat, updated);
+
+        assertNull(actual.getId());
+        assertEquals(expected.getCode(), actual.getCode());
+        assertEquals(expected.getCurrencyNameCN(), actual.getCurrencyNameCN());
+        assertEquals(expected.getRateFloat(), actual.getRateFloat());
+        assertEquals(expected.getUpdated(), actual.getUpdated());
+    }
+
+    @ParameterizedTest
+    @MethodSource("entities")
+    public void testUpdateEntityKeepsValuesForMissingArguments(Long id, String code, String currencyNameCN, BigDecimal rateFloat, Timestamp updated) {
+        CurrencyEntity entity = currencyMapper.toEntity(code, "原名", new BigDecimal("1.5"), null);
+        entity.setId(id);
+
+        currencyMapper.updateEntity(entity, rateFloat, currencyNameCN, updated);
+
+        assertEquals(id, entity.getId());
+        assertEquals(code, entity.getCode());
+        assertEquals(currencyNameCN != null ? currencyNameCN : "原名", entity.getCurrencyNameCN());
+        // 實體中的匯率一律正規化為資料欄位的 4 位小數
+        assertEquals(rateFloat != null ? rateFloat.setScale(ScaledRate.SCALE, RoundingMode.HALF_UP) : new BigDecimal("1.5000"), entity.getRateFloat());
+        assertEquals(updated, entity.getUpdated());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.currency;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 小寫代碼排在其他測試的大寫代碼之後，分頁結果只包含本測試的資料
+@SpringBootTest(properties = {"currency.polling.enabled=false", "spring.jpa.show-sql=false"})
+public class CurrencyPageServiceTest {
+    @Autowired
+    private CurrencyPageService currencyPageService;
+    @Autowired
+    private CurrencyEntityRepository currencyEntityRepository;
+    @Autowired
+    private CurrencyWriteBehindBuffer currencyWriteBehindBuffer;
+    @Autowired
+    private CurrencyRateCache currencyRateCache;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setup() {
+        List<CurrencyEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String code = "zp0" + i;
+            if (currencyEntityRepository.findByCode(code) == null) {
+                CurrencyEntity entity = new CurrencyEntity();
+                entity.setCode(code);
+                entity.setCurrencyNameCN("分頁" + i);
+                entity.setRateFloat(new BigDecimal(i + 1));
+                entity.setUpdated(new Timestamp(System.currentTimeMillis()));
+                entities.add(entity);
+            }
+        }
+        currencyEntityRepository.saveAll(entities);
+    }
+
+    @Test
+    public void testPagesThroughCodesWithCursor() throws Exception {
+        List<String> codes = new ArrayList<>();
+        String after = "zp";
+        int pages = 0;
+        do {
+            CurrencyPage page = currencyPageService.page(after, 4, Sort.Direction.ASC, null, "語言");
+            JsonNode items = objectMapper.readTree(page.json());
+            items.forEach(item -> codes.add(item.get("code").asText()));
+            assertEquals("分頁" + codes.get(pages * 4).charAt(3), items.get(0).get("currencyNameCN").asText());
+            assertEquals("語言", items.get(0).get("language").asText());
+            after = page.nextCursor();
+            pages++;
+        } while (after != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of("zp00", "zp01", "zp02", "zp03", "zp04", "zp05", "zp06", "zp07", "zp08", "zp09"), codes);
+
+        CurrencyPage descending = currencyPageService.page("zp05", 2, Sort.Direction.DESC, null, null);
+        JsonNode items = objectMapper.readTree(descending.json());
+        assertEquals("zp04", items.get(0).get("code").asText());
+        assertEquals("zp03", items.get(1).get("code").asText());
+        assertEquals("zp03", descending.nextCursor());
+    }
+
+    @Test
+    public void testProjectsRequestedFieldsOnly() throws Exception {
+        CurrencyPage page = currencyPageService.page("zp", 2, Sort.Direction.ASC, "rateFloat", null);
+        JsonNode first = objectMapper.readTree(page.json()).get(0);
+
+        assertEquals(2, first.size());
+        assertEquals("zp00", first.get("code").asText());
+        assertEquals(0, BigDecimal.ONE.compareTo(first.get("rateFloat").decimalValue()));
+
+        first = objectMapper.readTree(currencyPageService.page("zp", 1, Sort.Direction.ASC, "currencyNameCN, updated", null).json()).get(0);
+        assertEquals(3, first.size());
+        assertEquals("分頁0", first.get("currencyNameCN").asText());
+        assertTrue(first.get("updated").isTextual());
+    }
+
+    @Test
+    public void testPendingWritesShowUpOnTheirPage() throws Exception {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        assertNotNull(currencyWriteBehindBuffer.create("zp015", "暫存", new BigDecimal("9.5"), now));
+        assertNotNull(currencyWriteBehindBuffer.create("zp095", "暫存", new BigDecimal("9.6"), now));
+        assertNotNull(currencyWriteBehindBuffer.update("zp02", new BigDecimal("30"), null, now));
+        try {
+            CurrencyPage first = currencyPageService.page("zp", 4, Sort.Direction.ASC, "rateFloat", null);
+            JsonNode items = objectMapper.readTree(first.json());
+            assertEquals(List.of("zp00", "zp01", "zp015", "zp02"), codes(items));
+            assertEquals(0, new BigDecimal("9.5").compareTo(items.get(2).get("rateFloat").decimalValue()));
+            assertEquals(0, new BigDecimal("30").compareTo(items.get(3).get("rateFloat").decimalValue()));
+            assertEquals("zp02", first.nextCursor());
+
+            // 排在資料庫最後一筆之後的暫存資料出現在最後一頁
+            CurrencyPage last = currencyPageService.page("zp08", 4, Sort.Direction.ASC, null, null);
+            assertEquals(List.of("zp09", "zp095"), codes(objectMapper.readTree(last.json())));
+            assertNull(last.nextCursor());
+
+            CurrencyPage descending = currencyPageService.page("zp02", 2, Sort.Direction.DESC, "currencyNameCN", null);
+            items = objectMapper.readTree(descending.json());
+            assertEquals(List.of("zp015", "zp01"), codes(items));
+            assertEquals("暫存", items.get(0).get("currencyNameCN").asText());
+        } finally {
+            for (String code : List.of("zp015", "zp095", "zp02")) {
+                currencyWriteBehindBuffer.discard(code);
+                currencyRateCache.evict(code);
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> currencyPageService.page(null, 0, Sort.Direction.ASC, null, null));
+        assertThrows(IllegalArgumentException.class, () -> currencyPageService.page(null, 10, Sort.Direction.ASC, "code,id", null));
+    }
+
+    private static List<String> codes(JsonNode items) {
+        List<String> codes = new ArrayList<>();
+        items.forEach(item -> codes.add(item.get("code").asText()));
+        return codes;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.demo.currency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CurrencyRateCacheTest {
+    private CurrencyEntityRepository currencyEntityRepository;
+    private CurrencyCacheProperties properties;
+    private CurrencyRateCache currencyRateCache;
+
+    @BeforeEach
+    public void setup() {
+        currencyEntityRepository = mock(CurrencyEntityRepository.class);
+        properties = new CurrencyCacheProperties();
+        currencyRateCache = new CurrencyRateCache(currencyEntityRepository, properties);
+    }
+
+    @Test
+    public void testFindByCodeReadsThrough() {
+        CurrencyEntity usd = entity("USD", "66370.93");
+        when(currencyEntityRepository.findByCode("USD")).thenReturn(usd);
+
+        assertSame(usd, currencyRateCache.findByCode("USD"));
+        assertSame(usd, currencyRateCache.findByCode("USD"));
+
+        verify(currencyEntityRepository, times(1)).findByCode("USD");
+        assertEquals(1, currencyRateCache.getHitCount());
+        assertEquals(1, currencyRateCache.getMissCount());
+    }
+
+    @Test
+    public void testFindAllServedFromCacheOnceComplete() {
+        CurrencyEntity eur = entity("EUR", "61564.94");
+        CurrencyEntity usd = entity("USD", "66370.93");
+        when(currencyEntityRepository.findAll(Sort.by("code").ascending())).thenReturn(List.of(eur, usd));
+
+        currencyRateCache.findAll(Sort.by("code").ascending());
+        List<CurrencyEntity> descending = currencyRateCache.findAll(Sort.by("code").descending());
+
+        assertEquals(List.of(usd, eur), descending);
+        // the whole table is cached, so unknown codes are answered without a query
+        assertNull(currencyRateCache.findByCode("GBP"));
+        verify(currencyEntityRepository, times(1)).findAll(any(Sort.class));
+        verify(currencyEntityRepository, never()).findByCode(any());
+    }
+
+    @Test
+    public void testWritesUpdateCachedView() {
+        CurrencyEntity usd = entity("USD", "66370.93");
+        when(currencyEntityRepository.findAll(Sort.by("code").ascending())).thenReturn(List.of(usd));
+        currencyRateCache.findAll(Sort.by("code").ascending());
+        long version = currencyRateCache.version();
+
+        CurrencyEntity updated = entity("USD", "99999");
+        currencyRateCache.put(updated);
+        assertSame(updated, currencyRateCache.findByCode("USD"));
+        assertTrue(currencyRateCache.version() > version);
+
+        currencyRateCache.evict("USD");
+        assertNull(currencyRateCache.findByCode("USD"));
+        verify(currencyEntityRepository, never()).findByCode(any());
+    }
+
+    @Test
+    public void testSizeAndTtlEviction() {
+        properties.setMaxSize(1);
+        currencyRateCache.put(entity("EUR", "61564.94"));
+        currencyRateCache.put(entity("USD", "66370.93"));
+
+        assertEquals(1, currencyRateCache.size());
+        assertEquals(1, currencyRateCache.getEvictionCount());
+
+        properties.setTtl(Duration.ZERO);
+        currencyRateCache.put(entity("USD", "66370.93"));
+        currencyRateCache.findByCode("USD");
+        verify(currencyEntityRepository, times(1)).findByCode("USD");
+    }
+
+    @Test
+    public void testPublishesRateChanges() {
+        List<CurrencyRatesChangedEvent> events = new ArrayList<>();
+        currencyRateCache.setApplicationEventPublisher(event -> events.add((CurrencyRatesChangedEvent) event));
+        when(currencyEntityRepository.findAll(Sort.by("code"))).thenReturn(List.of(entity("EUR", "61564.94")));
+
+        currencyRateCache.putAll(List.of(entity("EUR", "61564.94"), entity("USD", "66370.93")));
+        currencyRateCache.evict("EUR");
+        currencyRateCache.evict("EUR");
+        currencyRateCache.refresh();
+
+        assertEquals(3, events.size());
+        assertEquals(Map.of("EUR", 615649400L, "USD", 663709300L), events.get(0).rates());
+        assertFalse(events.get(0).reloaded());
+        assertEquals(Map.of("EUR", ScaledRate.NONE), events.get(1).rates());
+        assertEquals(Map.of("EUR", 615649400L), events.get(2).rates());
+        assertTrue(events.get(2).reloaded());
+    }
+
+    @Test
+    public void testCapacityEvictionAndUnchangedReloadsPublishNothing() {
+        List<CurrencyRatesChangedEvent> events = new ArrayList<>();
+        currencyRateCache.setApplicationEventPublisher(event -> events.add((CurrencyRatesChangedEvent) event));
+        properties.setMaxSize(2);
+
+        currencyRateCache.putAll(List.of(entity("EUR", "61564.94"), entity("USD", "66370.93")));
+        currencyRateCache.put(entity("JPY", "0.0066"));
+        assertEquals(2, events.size());
+        // EUR 因容量被淘汰，但幣別仍存在
+        assertEquals(Map.of("JPY", 66L), events.get(1).rates());
+        assertEquals(Set.of("USD", "JPY"), currencyRateCache.cachedCodes());
+
+        // 到期後重新載入相同匯率不發布，匯率變動才發布
+        properties.setTtl(Duration.ZERO);
+        currencyRateCache.put(entity("USD", "66370.93"));
+        when(currencyEntityRepository.findByCode("USD")).thenReturn(entity("USD", "66370.93"), entity("USD", "70000"));
+        currencyRateCache.findByCode("USD");
+        assertEquals(2, events.size());
+        currencyRateCache.findByCode("USD");
+        assertEquals(3, events.size());
+        assertEquals(Map.of("USD", 700000000L), events.get(2).rates());
+
+        // 刪除已被淘汰的幣別仍要發布移除
+        currencyRateCache.evict("EUR");
+        assertEquals(Map.of("EUR", ScaledRate.NONE), events.get(3).rates());
+        currencyRateCache.evict("EUR");
+        assertEquals(4, events.size());
+    }
+
+    @Test
+    public void testPutAllBeyondCapacityStaysLinear() {
+        properties.setMaxSize(1_000);
+        List<CurrencyEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            entities.add(entity(String.format("C%06d", i), "1"));
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> currencyRateCache.putAll(entities));
+        assertEquals(1_000, currencyRateCache.size());
+        assertEquals(199_000, currencyRateCache.getEvictionCount());
+        // 最先寫入的先被淘汰
+        assertTrue(currencyRateCache.cachedCodes().contains("C199999"));
+        assertFalse(currencyRateCache.cachedCodes().contains("C198999"));
+    }
+
+    @Test
+    public void testListenersRunOutsideTheWriteLock() {
+        List<Boolean> writerFinished = new ArrayList<>();
+        currencyRateCache.setApplicationEventPublisher(event -> {
+            // listener 執行期間其他執行緒仍可取得 writeLock
+            CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> currencyRateCache.evict("JPY"));
+            writerFinished.add(assertDoesNotThrow(() -> writer.get(5, TimeUnit.SECONDS)) == null);
+        });
+
+        currencyRateCache.put(entity("USD", "66370.93"));
+
+        assertEquals(List.of(true), writerFinished);
+    }
+
+    private static CurrencyEntity entity(String code, String rate) {
+        CurrencyEntity entity = new CurrencyEntity();
+        entity.setCode(code);
+        entity.setRateFloat(new BigDecimal(rate));
+        return entity;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.currency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CurrencyWriteBehindBufferTest {
+    private CurrencyEntityRepository currencyEntityRepository;
+    private CurrencyRateCache currencyRateCache;
+    private CurrencyWriteBehindBuffer buffer;
+    private final Timestamp now = new Timestamp(System.currentTimeMillis());
+
+    @BeforeEach
+    public void setup() {
+        currencyEntityRepository = mock(CurrencyEntityRepository.class);
+        when(currencyEntityRepository.findByCodeIn(any())).thenReturn(List.of());
+        when(currencyEntityRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        currencyRateCache = new CurrencyRateCache(currencyEntityRepository, new CurrencyCacheProperties());
+
+        CurrencyWriteBehindProperties properties = new CurrencyWriteBehindProperties();
+        properties.setEnabled(true);
+        // 由測試手動寫回
+        properties.setFlushInterval(Duration.ofHours(1));
+        buffer = new CurrencyWriteBehindBuffer(currencyEntityRepository, currencyRateCache, new CurrencyMapper(),
+                properties, mock(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    public void close() {
+        buffer.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLastWriteWinsAndFlushesOnce() {
+        assertNotNull(buffer.create("JPY", "日圓", new BigDecimal("1.1"), now));
+        assertNull(buffer.create("JPY", "日圓", new BigDecimal("1.2"), now));
+        buffer.update("JPY", new BigDecimal("1.3"), null, now);
+        buffer.update("JPY", new BigDecimal("1.4"), "日幣", now);
+
+        // 寫回前即可讀到最新的修改
+        assertEquals(new BigDecimal("1.4000"), buffer.find("JPY").getRateFloat());
+        assertEquals("日幣", currencyRateCache.findByCode("JPY").getCurrencyNameCN());
+        verify(currencyEntityRepository, never()).saveAll(any());
+
+        assertEquals(1, buffer.flush());
+        ArgumentCaptor<List<CurrencyEntity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(currencyEntityRepository, times(1)).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals(14_000L, saved.getValue().get(0).getScaledRate());
+        assertEquals(0, buffer.getPendingCount());
+        assertEquals(0, buffer.flush());
+    }
+
+    @Test
+    public void testPendingWritesSurviveCacheReload() {
+        CurrencyEntity usd = new CurrencyEntity();
+        usd.setCode("USD");
+        usd.setRateFloat(new BigDecimal("66370.93"));
+        when(currencyEntityRepository.findAll(any(Sort.class))).thenReturn(List.of(usd));
+        when(currencyEntityRepository.findByCode("USD")).thenReturn(usd);
+
+        buffer.update("USD", new BigDecimal("70000"), null, now);
+        buffer.create("EUR", "歐元", new BigDecimal("61564.94"), now);
+        assertNull(buffer.update("GBP", BigDecimal.ONE, null, now));
+
+        currencyRateCache.refresh();
+        List<CurrencyEntity> listed = buffer.overlay(currencyRateCache.findAll(Sort.by(Sort.Direction.ASC, "code")), Sort.Direction.ASC);
+        assertEquals(List.of("EUR", "USD"), listed.stream().map(CurrencyEntity::getCode).toList());
+        assertEquals(new BigDecimal("70000.0000"), listed.get(1).getRateFloat());
+        // 原本的實體不會被修改
+        assertEquals(new BigDecimal("66370.9300"), usd.getRateFloat());
+    }
+
+    @Test
+    public void testDiscardAndShutdownFlush() {
+        buffer.create("EUR", "歐元", new BigDecimal("61564.94"), now);
+        buffer.create("JPY", "日圓", new BigDecimal("1.1"), now);
+        assertTrue(buffer.discard("EUR"));
+        assertFalse(buffer.discard("EUR"));
+
+        buffer.close();
+        verify(currencyEntityRepository, times(1)).saveAll(argThat(entities ->
+                entities.iterator().next().getCode().equals("JPY")));
+        assertEquals(0, buffer.getPendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRejectedRowIsDroppedWithoutBlockingOthers() {
+        when(currencyEntityRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<CurrencyEntity> entities = invocation.getArgument(0);
+            if (entities.stream().anyMatch(entity -> entity.getCode().equals("BAD"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return entities;
+        });
+        buffer.create("JPY", "日圓", new BigDecimal("1.1"), now);
+        buffer.create("BAD", "x".repeat(300), new BigDecimal("1.2"), now);
+        buffer.create("KRW", "韓圓", new BigDecimal("1.3"), now);
+
+        assertEquals(2, buffer.flush());
+        assertEquals(0, buffer.getPendingCount());
+        assertEquals(1, buffer.getDroppedCount());
+        // 被丟棄的值不再由快取提供
+        assertNull(buffer.find("BAD"));
+        assertNull(currencyRateCache.findByCode("BAD"));
+        assertNotNull(currencyRateCache.findByCode("KRW"));
+
+        // 暫時性錯誤則保留所有待寫入的資料
+        doThrow(new QueryTimeoutException("timeout")).when(currencyEntityRepository).saveAll(any());
+        buffer.update("JPY", new BigDecimal("2"), null, now);
+        assertThrows(QueryTimeoutException.class, () -> buffer.flush());
+        assertEquals(1, buffer.getPendingCount());
+    }
+}
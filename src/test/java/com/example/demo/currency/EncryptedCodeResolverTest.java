@@ -0,0 +1,77 @@
+package com.example.demo.currency;
+
+import com.example.demo.util.EncryptionUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class EncryptedCodeResolverTest {
+    private CurrencyRateCache currencyRateCache;
+    private CurrencyCacheProperties properties;
+    private EncryptedCodeResolver encryptedCodeResolver;
+
+    @BeforeEach
+    public void setup() {
+        properties = new CurrencyCacheProperties();
+        currencyRateCache = new CurrencyRateCache(mock(CurrencyEntityRepository.class), properties);
+        encryptedCodeResolver = new EncryptedCodeResolver(properties);
+        currencyRateCache.setApplicationEventPublisher(event -> encryptedCodeResolver.onRatesChanged((CurrencyRatesChangedEvent) event));
+    }
+
+    @Test
+    public void testResolvesCachedAndUnknownCodes() throws Exception {
+        CurrencyEntity usd = new CurrencyEntity();
+        usd.setCode("USD");
+        usd.setRateFloat(new BigDecimal("66370.93"));
+        currencyRateCache.put(usd);
+
+        assertEquals(1, encryptedCodeResolver.knownTokenCount());
+        assertEquals("USD", encryptedCodeResolver.resolve("EPq9oFB3PKMMIpa6Z6HJSw=="));
+        // not in the currency table, falls back to real decryption
+        assertEquals("JPY", encryptedCodeResolver.resolve(EncryptionUtil.encrypt("JPY")));
+        assertEquals("JPY", encryptedCodeResolver.resolve(EncryptionUtil.encrypt("JPY")));
+    }
+
+    @Test
+    public void testInvalidTokensAreRejectedRepeatedly() {
+        properties.setInvalidTokenMaxSize(1);
+
+        IllegalArgumentException first = assertThrows(IllegalArgumentException.class, () -> encryptedCodeResolver.resolve("garbage"));
+        assertNotNull(first.getCause());
+        IllegalArgumentException cached = assertThrows(IllegalArgumentException.class, () -> encryptedCodeResolver.resolve("garbage"));
+        assertNull(cached.getCause());
+
+        assertThrows(IllegalArgumentException.class, () -> encryptedCodeResolver.resolve("AAAAAAAAAAAAAAAAAAAAAA=="));
+        assertEquals("USD", encryptedCodeResolver.resolve("EPq9oFB3PKMMIpa6Z6HJSw=="));
+    }
+
+    @Test
+    public void testTokenTableFollowsCacheChanges() throws Exception {
+        currencyRateCache.putAll(List.of(entity("USD", "66370.93"), entity("GBP", "51553.00")));
+        assertEquals(2, encryptedCodeResolver.knownTokenCount());
+
+        // 只有匯率變動時不需重新加密
+        currencyRateCache.put(entity("USD", "70000"));
+        assertEquals(2, encryptedCodeResolver.knownTokenCount());
+
+        currencyRateCache.evict("GBP");
+        assertEquals(1, encryptedCodeResolver.knownTokenCount());
+
+        encryptedCodeResolver.onRatesChanged(new CurrencyRatesChangedEvent(Map.of("EUR", 615649400L), true));
+        assertEquals(1, encryptedCodeResolver.knownTokenCount());
+        assertEquals("EUR", encryptedCodeResolver.resolve(EncryptionUtil.encrypt("EUR")));
+    }
+
+    private static CurrencyEntity entity(String code, String rate) {
+        CurrencyEntity entity = new CurrencyEntity();
+        entity.setCode(code);
+        entity.setRateFloat(new BigDecimal(rate));
+        return entity;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.demo.currency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScaledRateTest {
+    private static final BigDecimal UNIT = BigDecimal.valueOf(ScaledRate.UNIT);
+
+    @Test
+    public void testEveryFifthDecimalRoundsLikeBigDecimal() {
+        // 小數第五位的所有組合，正負各一次
+        for (String integer : new String[]{"0", "1", "66370", "922337203685476"}) {
+            for (int fraction = 0; fraction < 100_000; fraction++) {
+                String text = integer + "." + String.format("%05d", fraction);
+                assertParsesLikeBigDecimal(text);
+                assertParsesLikeBigDecimal("-" + text);
+            }
+        }
+    }
+
+    @Test
+    public void testTextForms() {
+        for (String text : new String[]{"0", "-0", "+1", "7", "7.", ".5", "-.00005", "66370.9263", "1E+7", "1.23456e2",
+                "0.000049999999", "0.00005000000000000001", "922337203685477.5807", "-922337203685477.5807"}) {
+            assertParsesLikeBigDecimal(text);
+        }
+        for (String text : new String[]{"", "-", ".", "1.2.3", "12a", "--1", "1,000"}) {
+            assertThrows(NumberFormatException.class, () -> ScaledRate.parse(text), text);
+        }
+    }
+
+    @Test
+    public void testRangeLimits() {
+        assertEquals(ScaledRate.MAX, ScaledRate.parse("922337203685477.5807"));
+        assertEquals(ScaledRate.MIN, ScaledRate.parse("-922337203685477.5807"));
+        for (String text : new String[]{"922337203685477.58075", "922337203685477.5808", "-922337203685477.5808",
+                "-922337203685477.58075", "999999999999999.9999", "1e30"}) {
+            assertThrows(ArithmeticException.class, () -> ScaledRate.parse(text), text);
+            assertThrows(ArithmeticException.class, () -> ScaledRate.of(new BigDecimal(text)), text);
+            assertEquals(ScaledRate.NONE, ScaledRate.ofNullableOrNone(new BigDecimal(text)), text);
+        }
+        assertNull(ScaledRate.toBigDecimal(ScaledRate.NONE));
+        assertEquals(ScaledRate.NONE, ScaledRate.ofNullable(null));
+        assertEquals(ScaledRate.NONE, ScaledRate.ofNullableOrNone(null));
+        assertEquals(ScaledRate.MAX, ScaledRate.ofNullableOrNone(new BigDecimal("922337203685477.5807")));
+    }
+
+    @Test
+    public void testEntityKeepsColumnValuesBeyondLongRange() {
+        CurrencyEntity entity = new CurrencyEntity();
+        entity.setRateFloat(new BigDecimal("66370.93456"));
+        assertEquals(new BigDecimal("66370.9346"), entity.getRateFloat());
+        assertEquals(663709346L, entity.getScaledRate());
+        entity.setRateFloat(new BigDecimal("1.5"));
+        assertEquals(new BigDecimal("1.5000"), entity.getRateFloat());
+        assertThrows(ArithmeticException.class, () -> entity.setRateFloat(new BigDecimal("999999999999999.9999")));
+
+        // 資料庫中合法的 DECIMAL(19, 4) 值載入時不可失敗
+        CurrencyEntity loaded = new CurrencyEntity();
+        ReflectionTestUtils.setField(loaded, "rateFloat", new BigDecimal("999999999999999.9999"));
+        loaded.syncScaledRate();
+        assertEquals(ScaledRate.NONE, loaded.getScaledRate());
+        assertEquals(new BigDecimal("999999999999999.9999"), loaded.getRateFloat());
+    }
+
+    @Test
+    public void testRoundTripMatchesDecimal19Scale4Column() throws Exception {
+        Random random = new Random(42);
+        List<BigDecimal> values = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            int integerDigits = random.nextInt(15);
+            BigDecimal integer = new BigDecimal(Math.abs(random.nextLong()) % (long) Math.pow(10, integerDigits + 1) / 10);
+            BigDecimal fraction = BigDecimal.valueOf(random.nextInt(10_000_000), 7);
+            BigDecimal value = integer.add(fraction);
+            values.add(random.nextBoolean() ? value : value.negate());
+        }
+        values.add(new BigDecimal("0.00005"));
+        values.add(new BigDecimal("-0.00005"));
+        values.add(new BigDecimal("0.00004999"));
+        values.add(new BigDecimal("922337203685477.5807"));
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:scaled_rate_test");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE rates (id INT PRIMARY KEY, rate_float DECIMAL(19, 4))");
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO rates VALUES (?, ?)")) {
+                for (int i = 0; i < values.size(); i++) {
+                    insert.setInt(1, i);
+                    insert.setBigDecimal(2, values.get(i));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (ResultSet resultSet = statement.executeQuery("SELECT id, rate_float FROM rates ORDER BY id")) {
+                while (resultSet.next()) {
+                    BigDecimal input = values.get(resultSet.getInt(1));
+                    BigDecimal stored = resultSet.getBigDecimal(2);
+                    long scaled = ScaledRate.of(input);
+
+                    assertEquals(stored, ScaledRate.toBigDecimal(scaled), input.toPlainString());
+                    assertEquals(scaled, ScaledRate.of(stored));
+                    assertEquals(scaled, ScaledRate.parse(input.toPlainString()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testArithmeticMatchesBigDecimal() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long a = random.nextLong() % (i % 2 == 0 ? 1_000_000_000L : ScaledRate.MAX);
+            long b = random.nextLong() % 10_000_000_000L;
+            BigDecimal decimalA = BigDecimal.valueOf(a, ScaledRate.SCALE);
+            BigDecimal decimalB = BigDecimal.valueOf(b, ScaledRate.SCALE);
+
+            BigDecimal product = decimalA.multiply(decimalB).setScale(ScaledRate.SCALE, RoundingMode.HALF_UP);
+            if (fits(product)) {
+                assertEquals(ScaledRate.of(product), ScaledRate.multiply(a, b), a + " * " + b);
+            } else {
+                assertThrows(ArithmeticException.class, () -> ScaledRate.multiply(a, b));
+            }
+            if (b != 0) {
+                BigDecimal quotient = decimalA.divide(decimalB, ScaledRate.SCALE, RoundingMode.HALF_UP);
+                if (fits(quotient)) {
+                    assertEquals(ScaledRate.of(quotient), ScaledRate.divide(a, b), a + " / " + b);
+                } else {
+                    assertThrows(ArithmeticException.class, () -> ScaledRate.divide(a, b));
+                }
+            }
+        }
+        assertThrows(ArithmeticException.class, () -> ScaledRate.divide(ScaledRate.UNIT, 0));
+        assertThrows(ArithmeticException.class, () -> ScaledRate.multiply(ScaledRate.NONE, ScaledRate.UNIT));
+    }
+
+    @Test
+    public void testJsonDeserializer() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals(663709263L, objectMapper.readValue("{\"rate\":66370.92634}", Holder.class).rate);
+        assertEquals(10L, objectMapper.readValue("{\"rate\":\"0.001\"}", Holder.class).rate);
+        assertEquals(ScaledRate.NONE, objectMapper.readValue("{\"rate\":null}", Holder.class).rate);
+        assertEquals(ScaledRate.NONE, objectMapper.readValue("{}", Holder.class).rate);
+        assertThrows(Exception.class, () -> objectMapper.readValue("{\"rate\":\"abc\"}", Holder.class));
+    }
+
+    private static boolean fits(BigDecimal value) {
+        return value.multiply(UNIT).abs().compareTo(BigDecimal.valueOf(ScaledRate.MAX)) <= 0;
+    }
+
+    private static void assertParsesLikeBigDecimal(String text) {
+        assertEquals(ScaledRate.of(new BigDecimal(text)), ScaledRate.parse(text), text);
+    }
+
+    static class Holder {
+        @JsonDeserialize(using = ScaledRateDeserializer.class)
+        public long rate = ScaledRate.NONE;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.currency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpdatedTimestampFormatterTest {
+
+    @Test
+    public void testMatchesSimpleDateFormat() {
+        SimpleDateFormat sdf = new SimpleDateFormat(UpdatedTimestampFormatter.PATTERN);
+        Random random = new Random(20241012L);
+        long from = Timestamp.valueOf("1970-01-01 00:00:00").getTime();
+        long to = Timestamp.valueOf("2100-12-31 23:59:59").getTime();
+
+        for (int i = 0; i < 100_000; i++) {
+            Timestamp timestamp = new Timestamp(from + (long) (random.nextDouble() * (to - from)));
+            String expected = sdf.format(timestamp);
+            assertEquals(expected, UpdatedTimestampFormatter.formatUncached(timestamp));
+            assertEquals(expected, UpdatedTimestampFormatter.format(timestamp));
+            // second call is served from the cache
+            assertEquals(expected, UpdatedTimestampFormatter.format(timestamp));
+        }
+    }
+
+    @Test
+    public void testSubSecondValuesShareCachedText() {
+        Timestamp timestamp = Timestamp.valueOf("2024-10-12 08:15:30.999");
+        timestamp.setNanos(999_999_999);
+
+        assertEquals("2024/10/12 08:15:30", UpdatedTimestampFormatter.format(Timestamp.valueOf("2024-10-12 08:15:30")));
+        assertEquals("2024/10/12 08:15:30", UpdatedTimestampFormatter.format(timestamp));
+        assertEquals("1969/12/31 23:59:59", UpdatedTimestampFormatter.format(Timestamp.valueOf("1969-12-31 23:59:59.5")));
+    }
+
+    @Test
+    public void testCacheStaysBounded() {
+        long base = Timestamp.valueOf("2030-01-01 00:00:00").getTime();
+        for (int i = 0; i < 10_000; i++) {
+            Timestamp timestamp = new Timestamp(base + i * 1000L);
+            assertEquals(UpdatedTimestampFormatter.formatUncached(timestamp), UpdatedTimestampFormatter.format(timestamp));
+            assertTrue(UpdatedTimestampFormatter.cacheSize() <= UpdatedTimestampFormatter.CACHE_SIZE);
+        }
+        assertTrue(UpdatedTimestampFormatter.isCached(new Timestamp(base + 9_999_000L)));
+        assertFalse(UpdatedTimestampFormatter.isCached(new Timestamp(base)));
+    }
+
+    @Test
+    public void testConcurrentFormatting() throws Exception {
+        SimpleDateFormat sdf = new SimpleDateFormat(UpdatedTimestampFormatter.PATTERN);
+        long base = Timestamp.valueOf("2040-01-01 00:00:00").getTime();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        Timestamp timestamp = new Timestamp(base + (i % 6_000) * 1000L);
+                        String expected;
+                        synchronized (sdf) {
+                            expected = sdf.format(timestamp);
+                        }
+                        assertEquals(expected, UpdatedTimestampFormatter.format(timestamp));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDTOSerialization() throws Exception {
+        CurrencyDTO dto = new CurrencyDTO();
+        dto.setCode("USD");
+        dto.setUpdated(Timestamp.valueOf("2024-10-12 08:15:30"));
+
+        assertEquals("2024/10/12 08:15:30", dto.getUpdated());
+        String json = new ObjectMapper().writeValueAsString(dto);
+        assertTrue(json.contains("\"updated\":\"2024/10/12 08:15:30\""), json);
+
+        dto.setUpdated(null);
+        assertTrue(new ObjectMapper().writeValueAsString(dto).contains("\"updated\":null"));
+    }
+}
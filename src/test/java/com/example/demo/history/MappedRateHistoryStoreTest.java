@@ -0,0 +1,72 @@
+package com.example.demo.history;
+
+import com.example.demo.currency.CurrencyEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedRateHistoryStoreTest {
+    private static final Instant BASE = Instant.parse("2024-10-12T08:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testAppendGrowAndReopen() throws Exception {
+        MappedHistoryProperties properties = new MappedHistoryProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setGrowthRecords(4);
+
+        MappedRateHistoryStore store = new MappedRateHistoryStore(properties);
+        store.open();
+        for (int i = 0; i < 10; i++) {
+            store.append(List.of(entity("USD", BASE.plusSeconds(60L * i), new BigDecimal("100.12345").add(BigDecimal.valueOf(i)))));
+        }
+        // 時間未前進的資料不會寫入
+        store.append(List.of(entity("USD", BASE, new BigDecimal("1"))));
+        store.close();
+
+        MappedRateHistoryStore reopened = new MappedRateHistoryStore(properties);
+        reopened.open();
+        List<RateTickDTO> ticks = reopened.range("USD", BASE.plusSeconds(120), BASE.plusSeconds(420), 100);
+        assertEquals(5, ticks.size());
+        assertEquals(BASE.plusSeconds(120), ticks.get(0).getTimestamp());
+        assertEquals(new BigDecimal("102.1235"), ticks.get(0).getRate());
+        assertEquals(BASE.plusSeconds(360), ticks.get(4).getTimestamp());
+
+        assertEquals(2, reopened.range("USD", BASE, BASE.plusSeconds(3600), 2).size());
+        assertTrue(reopened.range("EUR", BASE, BASE.plusSeconds(3600), 100).isEmpty());
+        reopened.close();
+    }
+
+    @Test
+    public void testRejectsUnsafeCodes() throws Exception {
+        MappedHistoryProperties properties = new MappedHistoryProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+
+        MappedRateHistoryStore store = new MappedRateHistoryStore(properties);
+        store.open();
+        store.append(List.of(entity("../USD", BASE, BigDecimal.ONE)));
+        store.close();
+
+        assertFalse(directory.resolveSibling("USD.ts").toFile().exists());
+        assertEquals(0, directory.toFile().list().length);
+    }
+
+    private static CurrencyEntity entity(String code, Instant updated, BigDecimal rate) {
+        CurrencyEntity entity = new CurrencyEntity();
+        entity.setCode(code);
+        entity.setUpdated(Timestamp.from(updated));
+        entity.setRateFloat(rate);
+        return entity;
+    }
+}
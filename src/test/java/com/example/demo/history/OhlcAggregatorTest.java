@@ -0,0 +1,46 @@
+package com.example.demo.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OhlcAggregatorTest {
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    public void testBucketsAreEpochAlignedAndSkipGaps() {
+        long base = Instant.parse("2024-10-12T08:00:00Z").toEpochMilli();
+        OhlcAggregator aggregator = new OhlcAggregator(HOUR);
+        aggregator.add(base + 60_000, new BigDecimal("100"));
+        aggregator.add(base + 120_000, new BigDecimal("105.5"));
+        aggregator.add(base + 180_000, new BigDecimal("99"));
+        aggregator.add(base + 240_000, new BigDecimal("101"));
+        aggregator.add(base + 3 * HOUR + 1, new BigDecimal("110"));
+
+        List<OhlcBucketDTO> buckets = aggregator.finish();
+
+        assertEquals(2, buckets.size());
+        OhlcBucketDTO first = buckets.get(0);
+        assertEquals(Instant.parse("2024-10-12T08:00:00Z"), first.getStart());
+        assertEquals(new BigDecimal("100"), first.getOpen());
+        assertEquals(new BigDecimal("105.5"), first.getHigh());
+        assertEquals(new BigDecimal("99"), first.getLow());
+        assertEquals(new BigDecimal("101"), first.getClose());
+        assertEquals(4, first.getCount());
+
+        OhlcBucketDTO second = buckets.get(1);
+        assertEquals(Instant.parse("2024-10-12T11:00:00Z"), second.getStart());
+        assertEquals(1, second.getCount());
+        assertEquals(second.getOpen(), second.getClose());
+    }
+
+    @Test
+    public void testEmptyRangeAndInvalidStep() {
+        assertTrue(new OhlcAggregator(HOUR).finish().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new OhlcAggregator(0));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.history;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+public class RateHistoryRepositoryTest {
+    @Autowired
+    private RateHistoryRepository rateHistoryRepository;
+
+    @Test
+    public void testRangeIsHalfOpenOrderedAndLimitedToCode() {
+        // 刻意以非時間順序寫入，並加入其他幣別與範圍外的資料
+        save("USD", "2024-10-12 08:20:00", "3");
+        save("USD", "2024-10-12 08:00:00", "1");
+        save("EUR", "2024-10-12 08:05:00", "9");
+        save("USD", "2024-10-12 08:10:00", "2");
+        save("USD", "2024-10-12 07:59:59.999", "0");
+        save("USD", "2024-10-12 08:30:00", "4");
+
+        try (Stream<RateTick> ticks = rateHistoryRepository.findByCodeAndRecordedAtGreaterThanEqualAndRecordedAtLessThanOrderByRecordedAtAsc(
+                "USD", Timestamp.valueOf("2024-10-12 08:00:00"), Timestamp.valueOf("2024-10-12 08:30:00"))) {
+            List<RateTick> range = ticks.toList();
+
+            assertEquals(List.of(Timestamp.valueOf("2024-10-12 08:00:00"), Timestamp.valueOf("2024-10-12 08:10:00"),
+                    Timestamp.valueOf("2024-10-12 08:20:00")), range.stream().map(RateTick::getRecordedAt).toList());
+            assertEquals(0, new BigDecimal("1").compareTo(range.get(0).getRateFloat()));
+            assertEquals(0, new BigDecimal("3").compareTo(range.get(2).getRateFloat()));
+        }
+
+        try (Stream<RateTick> ticks = rateHistoryRepository.findByCodeAndRecordedAtGreaterThanEqualAndRecordedAtLessThanOrderByRecordedAtAsc(
+                "JPY", Timestamp.valueOf("2024-10-12 00:00:00"), Timestamp.valueOf("2024-10-13 00:00:00"))) {
+            assertEquals(0, ticks.count());
+        }
+    }
+
+    private void save(String code, String recordedAt, String rate) {
+        RateHistoryEntity row = new RateHistoryEntity();
+        row.setCode(code);
+        row.setRecordedAt(Timestamp.valueOf(recordedAt));
+        row.setRateFloat(new BigDecimal(rate));
+        rateHistoryRepository.save(row);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.provider;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory {@link RateProvider} for tests: fixed quotes, optional delay and optional failure.
+ */
+public class FakeRateProvider implements RateProvider {
+    private final String name;
+    private final Map<String, RateQuote> quotes = new HashMap<>();
+    private Instant updated = Instant.parse("2024-10-12T08:15:30Z");
+    private Duration delay = Duration.ZERO;
+    private RuntimeException failure;
+    private boolean changed = true;
+    private ProviderRates storedRates;
+
+    public FakeRateProvider(String name) {
+        this.name = name;
+    }
+
+    public FakeRateProvider quote(String code, long scaledRate, long volume) {
+        quotes.put(code, new RateQuote(code, scaledRate, volume));
+        return this;
+    }
+
+    public FakeRateProvider updated(Instant updated) {
+        this.updated = updated;
+        return this;
+    }
+
+    public FakeRateProvider delay(Duration delay) {
+        this.delay = delay;
+        return this;
+    }
+
+    public FakeRateProvider failWith(RuntimeException failure) {
+        this.failure = failure;
+        return this;
+    }
+
+    public FakeRateProvider unchanged() {
+        this.changed = false;
+        return this;
+    }
+
+    public ProviderRates getStoredRates() {
+        return storedRates;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Mono<ProviderRates> fetch() {
+        if (failure != null) {
+            return Mono.error(failure);
+        }
+        return Mono.just(new ProviderRates(name, updated, Map.copyOf(quotes), changed))
+                .delayElement(delay);
+    }
+
+    @Override
+    public void onStored(ProviderRates rates) {
+        storedRates = rates;
+    }
+}
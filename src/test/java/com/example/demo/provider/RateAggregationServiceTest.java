@@ -0,0 +1,91 @@
+package com.example.demo.provider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateAggregationServiceTest {
+    private RateProviderProperties properties;
+
+    @BeforeEach
+    public void setup() {
+        properties = new RateProviderProperties();
+        properties.setDefaultDeadline(Duration.ofMillis(300));
+    }
+
+    @Test
+    public void testMedianAcrossProviders() {
+        RateAggregationService service = new RateAggregationService(List.of(
+                new FakeRateProvider("a").quote("USD", 100_0000L, 0).quote("EUR", 90_0000L, 0),
+                new FakeRateProvider("b").quote("USD", 102_0000L, 0).quote("EUR", 91_0000L, 0),
+                new FakeRateProvider("c").quote("USD", 150_0000L, 0)
+                        .updated(Instant.parse("2024-10-12T08:16:00Z"))), properties);
+
+        AggregatedRates aggregated = service.aggregate().block();
+
+        assertNotNull(aggregated);
+        // 單一離群值不影響中位數
+        assertEquals(102_0000L, aggregated.rates().get("USD"));
+        assertEquals(90_5000L, aggregated.rates().get("EUR"));
+        assertEquals(Instant.parse("2024-10-12T08:16:00Z"), aggregated.updated());
+    }
+
+    @Test
+    public void testVolumeWeightedFallsBackToMedianWithoutVolume() {
+        properties.setStrategy(RateAggregator.Strategy.VOLUME_WEIGHTED);
+        RateAggregationService service = new RateAggregationService(List.of(
+                new FakeRateProvider("a").quote("USD", 100_0000L, 3).quote("EUR", 90_0000L, 5),
+                new FakeRateProvider("b").quote("USD", 110_0000L, 1).quote("EUR", 92_0000L, 0)), properties);
+
+        Map<String, Long> rates = service.aggregate().block().rates();
+
+        assertEquals(102_5000L, rates.get("USD"));
+        assertEquals(91_0000L, rates.get("EUR"));
+    }
+
+    @Test
+    public void testLateAndFailedProvidersDoNotBlockPublish() {
+        RateAggregationService service = new RateAggregationService(List.of(
+                new FakeRateProvider("slow").quote("USD", 1L, 0).delay(Duration.ofSeconds(5)),
+                new FakeRateProvider("broken").failWith(new IllegalStateException("upstream down")),
+                new FakeRateProvider("ok").quote("USD", 100_0000L, 0)), properties);
+
+        long start = System.nanoTime();
+        AggregatedRates aggregated = service.aggregate().block();
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        assertEquals(Map.of("USD", 100_0000L), aggregated.rates());
+        assertEquals(1, aggregated.sources().size());
+    }
+
+    @Test
+    public void testUnchangedAndMissingProviders() {
+        FakeRateProvider unchanged = new FakeRateProvider("a").quote("USD", 100_0000L, 0).unchanged();
+        assertNull(new RateAggregationService(List.of(unchanged), properties).aggregate().block());
+
+        properties.setMinProviders(2);
+        RateAggregationService service = new RateAggregationService(List.of(
+                new FakeRateProvider("a").quote("USD", 100_0000L, 0),
+                new FakeRateProvider("b").failWith(new IllegalStateException("upstream down"))), properties);
+        assertThrows(IllegalStateException.class, () -> service.aggregate().block());
+    }
+
+    @Test
+    public void testOnStoredReachesContributingProviders() {
+        FakeRateProvider a = new FakeRateProvider("a").quote("USD", 100_0000L, 0);
+        FakeRateProvider broken = new FakeRateProvider("broken").failWith(new IllegalStateException("upstream down"));
+        RateAggregationService service = new RateAggregationService(List.of(a, broken), properties);
+
+        AggregatedRates aggregated = service.aggregate().block();
+        service.onStored(aggregated);
+
+        assertSame(aggregated.sources().get(0), a.getStoredRates());
+        assertNull(broken.getStoredRates());
+    }
+}
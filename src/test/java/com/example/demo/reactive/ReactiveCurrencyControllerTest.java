@@ -0,0 +1,109 @@
+package com.example.demo.reactive;
+
+import com.example.demo.config.WebMvcConfig;
+import com.example.demo.currency.CurrencyEntity;
+import com.example.demo.currency.CurrencyEntityRepository;
+import com.example.demo.currency.CurrencyListSnapshots;
+import com.example.demo.currency.CurrencyMapper;
+import com.example.demo.currency.CurrencyRateCache;
+import com.example.demo.encryption.EncryptionBulkController;
+import com.example.demo.stream.RateStreamConfig;
+import com.example.demo.util.EncryptionUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+public class ReactiveCurrencyControllerTest {
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private CurrencyEntityRepository currencyEntityRepository;
+    @Autowired
+    private CurrencyMapper currencyMapper;
+    @Autowired
+    private CurrencyRateCache currencyRateCache;
+    @Autowired
+    private CurrencyListSnapshots currencyListSnapshots;
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    public void testServletOnlyBeansAreLeftOut() {
+        assertEquals(1, applicationContext.getBeanNamesForType(ReactiveConnectionPool.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(EncryptionBulkController.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(WebMvcConfig.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(RateStreamConfig.class).length);
+
+        webTestClient.get().uri("/api/encryption/encrypt?data=USD")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    public void testListIsServedFromTheSharedSnapshot() throws Exception {
+        currencyEntityRepository.deleteAll();
+        CurrencyEntity usd = currencyEntityRepository.save(currencyMapper.toEntity("USD", "美元", new BigDecimal("66370.93"), Timestamp.valueOf("2024-10-12 08:15:30")));
+        currencyEntityRepository.save(currencyMapper.toEntity("EUR", "歐元", new BigDecimal("61564.94"), Timestamp.valueOf("2024-10-12 08:15:30")));
+        currencyRateCache.refresh();
+
+        String etag = webTestClient.get().uri("/api/reactive/currency?sortDirection=DESC")
+                .header("Accept-Language", "en")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].code").isEqualTo("USD")
+                .jsonPath("$[0].rateFloat").isEqualTo(66370.93)
+                .jsonPath("$[0].updated").isEqualTo("2024/10/12 08:15:30")
+                .jsonPath("$[1].currencyNameCN").isEqualTo("歐元")
+                .returnResult().getResponseHeaders().getETag();
+
+        // 與 Servlet 端點相同的快照：ETag 一致即回 304
+        assertEquals(currencyListSnapshots.peek(Locale.ENGLISH, Sort.Direction.DESC).etag(), etag);
+        webTestClient.get().uri("/api/reactive/currency?sortDirection=DESC")
+                .header("Accept-Language", "en")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        // 快取變動後重建快照
+        currencyMapper.updateEntity(usd, new BigDecimal("70000"), null, Timestamp.valueOf("2024-10-12 08:16:00"));
+        currencyRateCache.put(currencyEntityRepository.save(usd));
+        webTestClient.get().uri("/api/reactive/currency?sortDirection=DESC")
+                .header("Accept-Language", "en")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].rateFloat").isEqualTo(70000.0);
+    }
+
+    @Test
+    public void testFindReadsRowsWrittenThroughJpa() throws Exception {
+        currencyEntityRepository.deleteAll();
+        currencyEntityRepository.save(currencyMapper.toEntity("USD", "美元", new BigDecimal("66370.93"), Timestamp.valueOf("2024-10-12 08:15:30")));
+
+        webTestClient.get().uri("/api/reactive/currency/EPq9oFB3PKMMIpa6Z6HJSw==")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("USD");
+
+        webTestClient.get().uri("/api/reactive/currency/{token}", EncryptionUtil.encrypt("JPY"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.stream;
+
+import com.example.demo.currency.CurrencyRatesChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"currency.polling.enabled=false", "currency.stream.heartbeat=1s",
+                "currency.stream.writer-threads=1", "server.tomcat.connection-timeout=1s"})
+public class RateStreamControllerTest {
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private RateStreamService rateStreamService;
+
+    @Test
+    public void testStalledClientIsDroppedWithoutBlockingOthers() throws Exception {
+        // 只送出請求、從不讀取回應的客戶端
+        Socket stalled = new Socket();
+        stalled.setReceiveBufferSize(1024);
+        stalled.connect(new InetSocketAddress("localhost", port));
+        stalled.getOutputStream().write(("GET /api/currency/stream HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        stalled.getOutputStream().flush();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/currency/stream")).build();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+        CountDownLatch lastChangeSeen = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> {
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (line.contains("\"code\":\"ZZLAST\"")) {
+                        lastChangeSeen.countDown();
+                    }
+                }
+            } catch (Exception e) {
+                // 測試結束時關閉連線
+            }
+        });
+        awaitSubscribers(2);
+
+        // 資料量遠大於 socket 緩衝區，停止讀取的客戶端必定卡住寫出執行緒
+        Map<String, Long> rates = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            rates.put(String.format("ZZ%06d", i), 10_000L + i);
+        }
+        rateStreamService.onRatesChanged(new CurrencyRatesChangedEvent(rates, false));
+        rateStreamService.onRatesChanged(new CurrencyRatesChangedEvent(Map.of("ZZLAST", 1L), false));
+
+        // 唯一的寫出執行緒在寫出逾時後釋放，正常的客戶端仍收到所有異動
+        assertTrue(lastChangeSeen.await(30, TimeUnit.SECONDS));
+        awaitSubscribers(1);
+        response.body().close();
+        stalled.close();
+        awaitSubscribers(0);
+    }
+
+    private void awaitSubscribers(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (rateStreamService.getSubscriberCount() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, rateStreamService.getSubscriberCount());
+    }
+
+    @Test
+    public void testIdleStreamOutlivesDefaultAsyncTimeout() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/currency/stream")).build();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+
+        long start = System.nanoTime();
+        AtomicLong lastHeartbeat = new AtomicLong();
+        CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (line.startsWith(":heartbeat")) {
+                        lastHeartbeat.set(System.nanoTime() - start);
+                    }
+                }
+            } catch (Exception e) {
+                // 測試結束時關閉連線
+            }
+        });
+
+        // Tomcat 預設的非同步逾時為 30 秒，超過後連線仍要持續收到心跳
+        Thread.sleep(33_000);
+        assertFalse(reader.isDone());
+        assertTrue(lastHeartbeat.get() > 31_000_000_000L, "last heartbeat at " + lastHeartbeat.get() / 1_000_000 + "ms");
+        assertEquals(1, rateStreamService.getSubscriberCount());
+        response.body().close();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.demo.stream;
+
+import com.example.demo.currency.CurrencyRatesChangedEvent;
+import com.example.demo.currency.ScaledRate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateStreamServiceTest {
+    private RateStreamService rateStreamService;
+
+    @BeforeEach
+    public void setup() {
+        RateStreamProperties properties = new RateStreamProperties();
+        properties.setHeartbeat(Duration.ofHours(1));
+        rateStreamService = new RateStreamService(properties);
+    }
+
+    @AfterEach
+    public void close() {
+        rateStreamService.close();
+    }
+
+    @Test
+    public void testSlowSubscriberReceivesLatestRatePerCode() {
+        rateStreamService.onRatesChanged(event(Map.of("EUR", 1_000L, "USD", 2_000L), true));
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        rateStreamService.subscribe().subscribe(subscriber);
+        assertEquals(1, rateStreamService.getSubscriberCount());
+
+        rateStreamService.onRatesChanged(event(Map.of("USD", 2_100L), false));
+        rateStreamService.onRatesChanged(event(Map.of("USD", 2_200L), false));
+        rateStreamService.onRatesChanged(event(Map.of("GBP", 3_000L), false));
+        assertTrue(subscriber.changes.isEmpty());
+
+        subscriber.request(10);
+        assertEquals(3, subscriber.changes.size());
+        assertEquals(new BigDecimal("0.2200"), find(subscriber.changes, "USD").getRateFloat());
+        assertEquals(new BigDecimal("0.1000"), find(subscriber.changes, "EUR").getRateFloat());
+        assertEquals(new BigDecimal("0.3000"), find(subscriber.changes, "GBP").getRateFloat());
+
+        subscriber.dispose();
+        assertEquals(0, rateStreamService.getSubscriberCount());
+    }
+
+    @Test
+    public void testOnlyActualChangesAreStreamed() {
+        rateStreamService.onRatesChanged(event(Map.of("EUR", 1_000L, "USD", 2_000L), true));
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        rateStreamService.subscribe().subscribe(subscriber);
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.changes.clear();
+
+        rateStreamService.onRatesChanged(event(Map.of("USD", 2_000L), false));
+        assertTrue(subscriber.changes.isEmpty());
+
+        // 重新載入後不存在的幣別視為刪除
+        rateStreamService.onRatesChanged(event(Map.of("USD", 2_000L), true));
+        assertEquals(1, subscriber.changes.size());
+        assertEquals("EUR", subscriber.changes.get(0).getCode());
+        assertTrue(subscriber.changes.get(0).isRemoved());
+        assertNull(subscriber.changes.get(0).getRateFloat());
+
+        rateStreamService.onRatesChanged(event(Map.of("USD", ScaledRate.NONE), false));
+        assertEquals(2, subscriber.changes.size());
+        assertTrue(subscriber.changes.get(1).isRemoved());
+        subscriber.dispose();
+    }
+
+    @Test
+    public void testConcurrentSubscribersNeverExceedTheLimit() throws Exception {
+        rateStreamService.close();
+        RateStreamProperties properties = new RateStreamProperties();
+        properties.setHeartbeat(Duration.ofHours(1));
+        properties.setMaxSubscribers(5);
+        rateStreamService = new RateStreamService(properties);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RecordingSubscriber>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                RecordingSubscriber subscriber = new RecordingSubscriber();
+                rateStreamService.subscribe().subscribe(subscriber);
+                return subscriber;
+            }));
+        }
+        start.countDown();
+        List<RecordingSubscriber> accepted = new ArrayList<>();
+        int rejected = 0;
+        for (Future<RecordingSubscriber> future : futures) {
+            try {
+                accepted.add(future.get(5, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                assertInstanceOf(RateStreamService.SubscriberLimitException.class, e.getCause());
+                rejected++;
+            }
+        }
+        executor.shutdown();
+        assertEquals(5, accepted.size());
+        assertEquals(15, rejected);
+        assertEquals(5, rateStreamService.getSubscriberCount());
+
+        // 取消後名額釋放，可再訂閱
+        accepted.get(0).dispose();
+        assertEquals(4, rateStreamService.getSubscriberCount());
+        RecordingSubscriber again = new RecordingSubscriber();
+        rateStreamService.subscribe().subscribe(again);
+        assertEquals(5, rateStreamService.getSubscriberCount());
+        accepted.forEach(RecordingSubscriber::dispose);
+        again.dispose();
+        assertEquals(0, rateStreamService.getSubscriberCount());
+    }
+
+    private static CurrencyRatesChangedEvent event(Map<String, Long> rates, boolean reloaded) {
+        return new CurrencyRatesChangedEvent(rates, reloaded);
+    }
+
+    private static RateChangeDTO find(List<RateChangeDTO> changes, String code) {
+        return changes.stream().filter(change -> change.getCode().equals(code)).findFirst().orElseThrow();
+    }
+
+    private static class RecordingSubscriber extends BaseSubscriber<ServerSentEvent<RateChangeDTO>> {
+        private final List<RateChangeDTO> changes = new ArrayList<>();
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            // 不主動請求，模擬寫出緩慢的客戶端
+        }
+
+        @Override
+        protected void hookOnNext(ServerSentEvent<RateChangeDTO> event) {
+            if (event.data() != null) {
+                changes.add(event.data());
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EncryptionUtilTest {
+    private static final byte[] KEY = "1234567890123456".getBytes();
+
+    @Test
+    public void testKnownToken() throws Exception {
+        assertEquals("EPq9oFB3PKMMIpa6Z6HJSw==", EncryptionUtil.encrypt("USD"));
+        assertEquals("USD", EncryptionUtil.decrypt("EPq9oFB3PKMMIpa6Z6HJSw=="));
+    }
+
+    @Test
+    public void testMatchesPerCallCipher() throws Exception {
+        Random random = new Random(42L);
+        for (int i = 0; i < 2_000; i++) {
+            String data = randomString(random, random.nextInt(64));
+            String expected = legacyEncrypt(data);
+
+            assertEquals(expected, EncryptionUtil.encrypt(data));
+            assertEquals(data, EncryptionUtil.decrypt(expected));
+        }
+    }
+
+    @Test
+    public void testInvalidTokenDoesNotPoisonPool() throws Exception {
+        assertThrows(Exception.class, () -> EncryptionUtil.decrypt("AAAAAAAAAAAAAAAAAAAAAA=="));
+        assertThrows(IllegalArgumentException.class, () -> EncryptionUtil.decrypt("not base64!"));
+
+        assertEquals("USD", EncryptionUtil.decrypt("EPq9oFB3PKMMIpa6Z6HJSw=="));
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                long seed = t;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 500; i++) {
+                        String data = randomString(random, 1 + random.nextInt(32));
+                        String encrypted = EncryptionUtil.encrypt(data);
+                        assertEquals(legacyEncrypt(data), encrypted);
+                        assertEquals(data, EncryptionUtil.decrypt(encrypted));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String legacyEncrypt(String data) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(KEY, "AES"));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(data.getBytes()));
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('A' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}